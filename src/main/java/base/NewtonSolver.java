@@ -8,23 +8,149 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
+ * Immutable, so can be used from several threads simultaneously.
+ *
  * @author Novik Dmitry ITMO University
  */
 public class NewtonSolver {
+    private static final double DEFAULT_ACCURACY = 1e-4;
+    private static final int DEFAULT_MAX_ITERATIONS = 1000;
+    public static final double DEFAULT_RELAXATION = 0.5;
+
+    /**
+     * Iteration schemes. Here {@code u = f / f'} and {@code t = f * f'' / (2 * f'^2)}.
+     */
+    public enum Method {
+        /**
+         * {@code z - u}, quadratic convergence
+         */
+        NEWTON(false),
+        /**
+         * {@code z - relaxation * u}, linear convergence, but less chaotic basins
+         */
+        DAMPED_NEWTON(false),
+        /**
+         * {@code z - u / (1 - t)}, cubic convergence
+         */
+        HALLEY(true),
+        /**
+         * {@code z - u * (1 + t)}, cubic convergence
+         */
+        HOUSEHOLDER(true);
+
+        private final boolean secondDerivative;
+
+        Method(boolean secondDerivative) {
+            this.secondDerivative = secondDerivative;
+        }
+
+        /**
+         * @return true if method needs {@code f''}
+         */
+        public boolean usesSecondDerivative() {
+            return secondDerivative;
+        }
+    }
 
     private final InPlaceFunction f;
     private final InPlaceFunction df_dz;
+    @Nullable
+    private final InPlaceFunction d2f_dz2;
 
-    private double accuracy = 1e-4;
-    private static final int MAX_ITERATIONS = 1000;
+    private final double accuracy;
+    private final int maxIterations;
+    private final Method method;
+    private final double relaxation;
 
     public NewtonSolver(InPlaceFunction f, InPlaceFunction df_dz) {
+        this(f, df_dz, DEFAULT_ACCURACY, DEFAULT_MAX_ITERATIONS);
+    }
+
+    public NewtonSolver(InPlaceFunction f, InPlaceFunction df_dz, double accuracy, int maxIterations) {
+        this(f, df_dz, null, accuracy, maxIterations, Method.NEWTON, DEFAULT_RELAXATION);
+    }
+
+    /**
+     * @param f             Function
+     * @param df_dz         Derivative of {@code f}
+     * @param d2f_dz2       Second derivative of {@code f}, required by {@link Method#usesSecondDerivative()}
+     * @param accuracy      Distance between iterations, after which root is found
+     * @param maxIterations Maximal number of iterations
+     * @param method        Iteration scheme
+     * @param relaxation    Multiplier of step for {@link Method#DAMPED_NEWTON}
+     */
+    public NewtonSolver(InPlaceFunction f, InPlaceFunction df_dz, @Nullable InPlaceFunction d2f_dz2,
+                        double accuracy, int maxIterations, Method method, double relaxation) {
+        if (method.usesSecondDerivative() && d2f_dz2 == null) {
+            throw new IllegalArgumentException(method + " requires second derivative");
+        }
         this.f = f;
         this.df_dz = df_dz;
+        this.d2f_dz2 = d2f_dz2;
+        this.accuracy = accuracy;
+        this.maxIterations = maxIterations;
+        this.method = method;
+        this.relaxation = relaxation;
     }
 
-    public void setAccuracy(double accuracy) {
-        this.accuracy = accuracy;
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * @return Maximal number of points in path, returned by {@link #getPath}
+     */
+    public int getMaxPathLength() {
+        return maxIterations + 2;
+    }
+
+    /**
+     * Makes one iteration of {@link #method}
+     *
+     * @param point current point
+     * @param next  next point
+     * @param temp  Some temporary point
+     * @param extra Some temporary point, may be null if method doesn't use {@code f''}
+     */
+    private void step(ComplexDouble point, ComplexDouble next, ComplexDouble temp, ComplexDouble extra) {
+        // next = f(point) / f'(point)
+        f.apply(point, next);
+        df_dz.apply(point, temp);
+        next.divi(temp);
+        switch (method) {
+            case DAMPED_NEWTON:
+                next.muli(relaxation);
+                break;
+            case HALLEY:
+            case HOUSEHOLDER:
+                // extra = f(point) * f''(point) / (2 * f'(point)^2)
+                //noinspection ConstantConditions Checked in constructor
+                d2f_dz2.apply(point, extra);
+                extra.divi(temp).muli(next).muli(0.5);
+                if (method == Method.HALLEY) {
+                    next.divi(extra.negi().addi(1));
+                } else {
+                    next.muli(extra.addi(1));
+                }
+                break;
+            default:
+                break;
+        }
+        // next = -step + point
+        next.negi().addi(point);
+    }
+
+    @Nullable
+    private ComplexDouble createExtra() {
+        return method.usesSecondDerivative() ? new ComplexDouble(0) : null;
     }
 
     /**
@@ -37,17 +163,26 @@ public class NewtonSolver {
      */
     @Nullable
     public ComplexDouble apply(ComplexDouble point, ComplexDouble next, ComplexDouble temp) {
+        return apply(point, next, temp, createExtra());
+    }
+
+    /**
+     * Finds root for function {@code f}, using Newton method, without allocations.
+     *
+     * @param point start point
+     * @param next  Some temporary point
+     * @param temp  Some temporary point
+     * @param extra Some temporary point, used by methods with {@code f''}
+     * @return root point
+     */
+    @Nullable
+    public ComplexDouble apply(ComplexDouble point, ComplexDouble next, ComplexDouble temp, ComplexDouble extra) {
         int iteration = 0;
         while (true) {
-            if (iteration == MAX_ITERATIONS) {
+            if (iteration == maxIterations) {
                 return null;
             }
-            // next = f(point)
-            f.apply(point, next);
-            // temp = f'(point)
-            df_dz.apply(point, temp);
-            // next = -(f(point) / f'(point)) + previous
-            next = next.divi(temp).negi().addi(point);
+            step(point, next, temp, extra);
             // temp = (next - point)
             temp = temp.copy(next).subi(point);
             if (temp.abs() < accuracy) {
@@ -70,17 +205,15 @@ public class NewtonSolver {
         ComplexDouble previous = new ComplexDouble(complex.real(), complex.imag());
         ComplexDouble next = new ComplexDouble(0);
         ComplexDouble temp = new ComplexDouble(0);
+        ComplexDouble extra = createExtra();
         int iteration = 0;
         ArrayList<ComplexDouble> points = new ArrayList<>();
         while (true) {
             points.add(new ComplexDouble(previous.real(), previous.imag()));
-            if (iteration == MAX_ITERATIONS) {
+            if (iteration == maxIterations) {
                 return points;
             }
-            // next = -(f(previous) / f'(previous)) + previous
-            f.apply(previous, next);
-            df_dz.apply(previous, temp);
-            next = next.divi(temp).negi().addi(previous);
+            step(previous, next, temp, extra);
             temp = temp.copy(next).subi(previous);
 
             if (temp.abs() < accuracy) {
@@ -92,4 +225,41 @@ public class NewtonSolver {
             ++iteration;
         }
     }
+
+    /**
+     * Writes points from Newton method's iterations to buffers without allocations.
+     * Buffers should have length at least {@link #getMaxPathLength()}.
+     *
+     * @param point start point, will be changed
+     * @param next  Some temporary point
+     * @param temp  Some temporary point
+     * @param extra Some temporary point, used by methods with {@code f''}
+     * @param xs    buffer for real parts of points
+     * @param ys    buffer for imaginary parts of points
+     * @return number of points in the path
+     */
+    public int getPath(ComplexDouble point, ComplexDouble next, ComplexDouble temp, ComplexDouble extra,
+                       double[] xs, double[] ys) {
+        int length = 0;
+        int iteration = 0;
+        while (true) {
+            xs[length] = point.real();
+            ys[length] = point.imag();
+            length++;
+            if (iteration == maxIterations) {
+                return length;
+            }
+            step(point, next, temp, extra);
+            temp = temp.copy(next).subi(point);
+
+            if (temp.abs() < accuracy) {
+                xs[length] = next.real();
+                ys[length] = next.imag();
+                return length + 1;
+            } else {
+                point = point.copy(next);
+            }
+            ++iteration;
+        }
+    }
 }
@@ -46,11 +46,45 @@ public class PlotUtils {
             array[1] = point.getSecond();
             newList.add(array);
         }
+        replaceRows(newList, dataTable, plot);
+    }
+
+    /**
+     * Replace all points on plot with points from buffers
+     *
+     * @param xs        X coordinates of points
+     * @param ys        Y coordinates of points
+     * @param length    Number of points to place
+     * @param dataTable Old dataset
+     * @param plot      Plot
+     */
+    public static void replaceData(
+            @Nonnull double[] xs,
+            @Nonnull double[] ys,
+            int length,
+            @Nonnull DataTable dataTable,
+            @Nonnull XYPlot plot
+    ) {
+        List<Comparable<?>[]> newList = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            Comparable<?>[] array = new Comparable[2];
+            array[0] = xs[i];
+            array[1] = ys[i];
+            newList.add(array);
+        }
+        replaceRows(newList, dataTable, plot);
+    }
+
+    private static void replaceRows(
+            @Nonnull List<Comparable<?>[]> rows,
+            @Nonnull DataTable dataTable,
+            @Nonnull XYPlot plot
+    ) {
         try {
             //noinspection unchecked It has this type
             List<Comparable<?>[]> stored = (List<Comparable<?>[]>) pointsField.get(dataTable);
             stored.clear();
-            stored.addAll(newList);
+            stored.addAll(rows);
             plot.dataUpdated(dataTable);
 
         } catch (IllegalAccessException e) {
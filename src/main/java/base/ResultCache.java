@@ -0,0 +1,265 @@
+package base;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent cache of solved regions. Every result is stored in own file, which name is a hash of the key.
+ * File contains key, payload and CRC32 of payload, so collisions and damaged files are detected and ignored.
+ * When total size of files exceeds the limit, the least recently used ones are deleted.
+ *
+ * @author Danil Kolikov
+ */
+public class ResultCache {
+    /**
+     * System property with directory of cache. Empty value disables cache.
+     */
+    public static final String DIRECTORY_PROPERTY = "cms.cacheDir";
+    /**
+     * System property with maximal size of cache in megabytes
+     */
+    public static final String SIZE_PROPERTY = "cms.cacheSize";
+
+    private static final int MAGIC = 0x434d5343;    // "CMSC"
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".bin";
+    private static final long DEFAULT_SIZE_MB = 256;
+
+    /**
+     * Writes result to the stream
+     */
+    @FunctionalInterface
+    public interface Encoder {
+        void encode(@Nonnull DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Reads result from the stream
+     */
+    @FunctionalInterface
+    public interface Decoder<T> {
+        @Nonnull
+        T decode(@Nonnull DataInputStream in) throws IOException;
+    }
+
+    private final File directory;
+    private final long maxBytes;
+
+    /**
+     * @param directory Directory of cache, is created if doesn't exist
+     * @param maxBytes  Maximal total size of files in cache
+     */
+    public ResultCache(@Nonnull File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Create cache in directory from {@link #DIRECTORY_PROPERTY}, or in {@code ~/.cms/cache} if it's not set
+     *
+     * @return Cache, or null if it's disabled
+     */
+    @Nullable
+    public static ResultCache fromProperty() {
+        String property = System.getProperty(DIRECTORY_PROPERTY,
+                new File(System.getProperty("user.home"), ".cms/cache").getPath());
+        if (property.trim().isEmpty()) {
+            return null;
+        }
+        long sizeMb = Long.getLong(SIZE_PROPERTY, DEFAULT_SIZE_MB);
+        return new ResultCache(new File(property.trim()), sizeMb * 1024 * 1024);
+    }
+
+    /**
+     * Create key from parts of request: function, version of algorithm, tolerances, limits and region.
+     * Doubles are written exactly, so only the same requests have the same keys. Version of algorithm should be
+     * increased when its results change, so results of older versions are not loaded.
+     *
+     * @param parts Parts of request
+     * @return Key of request
+     */
+    @Nonnull
+    public static String key(@Nonnull Object... parts) {
+        StringBuilder builder = new StringBuilder();
+        for (Object part : parts) {
+            if (builder.length() != 0) {
+                builder.append('|');
+            }
+            builder.append(part);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Load result from cache
+     *
+     * @param key     Key of request
+     * @param decoder Reader of result
+     * @return Result, or null if it's not in cache or file is damaged
+     */
+    @Nullable
+    public <T> T load(@Nonnull String key, @Nonnull Decoder<T> decoder) {
+        File file = fileOf(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        byte[] payload;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !key.equals(in.readUTF())) {
+                return null;
+            }
+            int length = in.readInt();
+            if (length != file.length() - headerLength(key) - Long.BYTES) {
+                throw new IOException("Wrong length of payload: " + length);
+            }
+            payload = new byte[length];
+            in.readFully(payload);
+            if (in.readLong() != checksum(payload)) {
+                throw new IOException("Wrong checksum");
+            }
+        } catch (IOException | RuntimeException e) {
+            damaged(file, e);
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            T result = decoder.decode(in);
+            // Mark file as recently used
+            file.setLastModified(System.currentTimeMillis());
+            return result;
+        } catch (IOException | RuntimeException e) {
+            damaged(file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Delete damaged file, otherwise it would fail on every load of its key
+     */
+    private static void damaged(@Nonnull File file, @Nonnull Exception e) {
+        System.err.println("Damaged cache file " + file + ": " + e);
+        file.delete();
+    }
+
+    /**
+     * @return Number of bytes before payload in file with given key
+     */
+    private static long headerLength(@Nonnull String key) throws IOException {
+        DataOutputStream out = new DataOutputStream(new ByteArrayOutputStream());
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(key);
+        out.writeInt(0);
+        return out.size();
+    }
+
+    /**
+     * Store result to cache and evict old results, if cache is too big
+     *
+     * @param key     Key of request
+     * @param encoder Writer of result
+     */
+    public void store(@Nonnull String key, @Nonnull Encoder encoder) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                encoder.encode(out);
+            }
+            byte[] payload = bytes.toByteArray();
+
+            directory.mkdirs();
+            File file = fileOf(key);
+            // Write to temporary file and move it, so other processes never read half-written files
+            File temp = File.createTempFile(file.getName(), ".tmp", directory);
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeUTF(key);
+                    out.writeInt(payload.length);
+                    out.write(payload);
+                    out.writeLong(checksum(payload));
+                }
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                temp.delete();
+                throw e;
+            }
+            evict(file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Delete the least recently used files, until cache fits the limit
+     *
+     * @param written Just written file, is never deleted. Resolution of modification time may be low,
+     *                so it can be the same as time of older files.
+     */
+    private synchronized void evict(@Nonnull File written) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) {
+            return;
+        }
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (total <= maxBytes) {
+                break;
+            }
+            if (file.equals(written)) {
+                continue;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+            }
+        }
+    }
+
+    @Nonnull
+    private File fileOf(@Nonnull String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                name.append(String.format("%02x", hash[i]));
+            }
+            return new File(directory, name.append(SUFFIX).toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long checksum(@Nonnull byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return crc.getValue();
+    }
+}
@@ -1,30 +1,44 @@
 package chaos;
 
+import base.PlotUtils;
 import de.erichseifert.gral.data.DataTable;
+import de.erichseifert.gral.navigation.NavigationEvent;
+import de.erichseifert.gral.navigation.NavigationListener;
 import de.erichseifert.gral.plots.XYPlot;
+import de.erichseifert.gral.plots.axes.Axis;
 import de.erichseifert.gral.plots.lines.DefaultLineRenderer2D;
 import de.erichseifert.gral.plots.lines.LineRenderer;
 import de.erichseifert.gral.plots.points.PointRenderer;
 import de.erichseifert.gral.ui.InteractivePanel;
+import de.erichseifert.gral.util.PointND;
 
 import javax.annotation.Nonnull;
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 
+/**
+ * Plot of series of points. Only visible part of series is shown: if it's longer than width of plot,
+ * minimum and maximum of every pixel column are shown. Shown points are recalculated when user moves or zooms plot.
+ */
 public class ConvergeSeriesFrame extends JFrame {
-    public ConvergeSeriesFrame(@Nonnull List<Double> series) throws HeadlessException {
+    private static final int DEFAULT_COLUMNS = 600;   // Until size of panel is known
+
+    private final double[] series;
+    private final DataTable data = new DataTable(Double.class, Double.class);
+    private final XYPlot plot = new XYPlot();
+    private final InteractivePanel interactivePanel;
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private boolean resampleScheduled;
+
+    public ConvergeSeriesFrame(@Nonnull double[] series) throws HeadlessException {
+        this.series = series;
         setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
         setMinimumSize(new Dimension(600, 400));
 
-        DataTable data = new DataTable(Double.class, Double.class);
-
         LineRenderer lines = new DefaultLineRenderer2D();
-        XYPlot plot = new XYPlot();
-
-        for (int i = 0; i < series.size(); i++) {
-            data.add((double) i, series.get(i));
-        }
         plot.add(data);
 
         // set lines
@@ -40,7 +54,117 @@ public class ConvergeSeriesFrame extends JFrame {
             lR.setColor(color);
         }
 
-        InteractivePanel interactivePanel = new InteractivePanel(plot);
+        // Data contains only visible points, so range is set manually
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double point : series) {
+            min = Math.min(min, point);
+            max = Math.max(max, point);
+        }
+        if (!(min < max)) {
+            min -= 1;
+            max += 1;
+        }
+        plot.getAxis(XYPlot.AXIS_X).setAutoscaled(false);
+        plot.getAxis(XYPlot.AXIS_Y).setAutoscaled(false);
+        plot.getAxis(XYPlot.AXIS_X).setRange(0, Math.max(1, series.length - 1));
+        plot.getAxis(XYPlot.AXIS_Y).setRange(min, max);
+
+        plot.getNavigator().addNavigationListener(new NavigationListener() {
+            @Override
+            public void centerChanged(NavigationEvent<PointND<? extends Number>> navigationEvent) {
+                scheduleResample();
+            }
+
+            @Override
+            public void zoomChanged(NavigationEvent<Double> navigationEvent) {
+                scheduleResample();
+            }
+        });
+
+        interactivePanel = new InteractivePanel(plot);
+        interactivePanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                scheduleResample();
+            }
+        });
         getContentPane().add(interactivePanel);
+        resample();
+    }
+
+    private void scheduleResample() {
+        // Navigation events come before axes are changed
+        if (!resampleScheduled) {
+            resampleScheduled = true;
+            SwingUtilities.invokeLater(() -> {
+                resampleScheduled = false;
+                resample();
+            });
+        }
+    }
+
+    private void resample() {
+        Axis axisX = plot.getAxis(XYPlot.AXIS_X);
+        int from = (int) Math.max(0, Math.floor(axisX.getMin().doubleValue()));
+        int to = (int) Math.max(from, Math.min(series.length, Math.ceil(axisX.getMax().doubleValue()) + 1));
+        int columns = interactivePanel.getWidth() > 0 ? interactivePanel.getWidth() : DEFAULT_COLUMNS;
+        if (xs.length < 2 * columns) {
+            xs = new double[2 * columns];
+            ys = new double[2 * columns];
+        }
+        int length = envelope(series, from, to, columns, xs, ys);
+        PlotUtils.replaceData(xs, ys, length, data, plot);
+        interactivePanel.repaint();
+    }
+
+    /**
+     * Write points of series from {@code from} to {@code to} to buffers. If there are more than two points
+     * per column, only minimum and maximum of every column are written, in order of their indices.
+     *
+     * @param series  Series of points
+     * @param from    First index, included
+     * @param to      Last index, not included
+     * @param columns Number of columns
+     * @param xs      Buffer for indices, should have length at least {@code 2 * columns}
+     * @param ys      Buffer for points, should have length at least {@code 2 * columns}
+     * @return Number of written points
+     */
+    static int envelope(@Nonnull double[] series, int from, int to, int columns,
+                        @Nonnull double[] xs, @Nonnull double[] ys) {
+        int length = 0;
+        if (to - from <= 2 * columns) {
+            for (int i = from; i < to; i++) {
+                xs[length] = i;
+                ys[length] = series[i];
+                length++;
+            }
+            return length;
+        }
+        for (int column = 0; column < columns; column++) {
+            int start = from + (int) ((long) (to - from) * column / columns);
+            int end = from + (int) ((long) (to - from) * (column + 1) / columns);
+            int minIndex = start;
+            int maxIndex = start;
+            for (int i = start + 1; i < end; i++) {
+                if (series[i] < series[minIndex]) {
+                    minIndex = i;
+                }
+                if (series[i] > series[maxIndex]) {
+                    maxIndex = i;
+                }
+            }
+            int first = Math.min(minIndex, maxIndex);
+            int second = Math.max(minIndex, maxIndex);
+            xs[length] = first;
+            ys[length] = series[first];
+            length++;
+            if (second != first) {
+                xs[length] = second;
+                ys[length] = series[second];
+                length++;
+            }
+        }
+        return length;
     }
 }
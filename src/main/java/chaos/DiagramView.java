@@ -0,0 +1,349 @@
+package chaos;
+
+import base.PlotUtils;
+import base.ResultCache;
+import de.erichseifert.gral.data.DataTable;
+import de.erichseifert.gral.navigation.NavigationEvent;
+import de.erichseifert.gral.navigation.NavigationListener;
+import de.erichseifert.gral.plots.XYPlot;
+import de.erichseifert.gral.plots.axes.Axis;
+import de.erichseifert.gral.plots.lines.LineRenderer;
+import de.erichseifert.gral.plots.points.PointRenderer;
+import de.erichseifert.gral.ui.InteractivePanel;
+import de.erichseifert.gral.util.PointND;
+import distributed.Coordinator;
+import org.apache.commons.math3.util.Pair;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.swing.*;
+import java.awt.*;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Bifurcation diagram, which is recalculated when user moves or zooms it.
+ * Doesn't need a window, so can be used in headless mode.
+ *
+ * @author Danil Kolikov
+ */
+public class DiagramView {
+    static final double EPS = 1e-10;
+    static final int MAX_ITERATIONS = 10_000;
+    private static final int DEFAULT_COLUMNS = 2000;  // Until size of panel is known
+    private static final int REFINEMENTS = 3;
+    private static final double MARGIN = 0.05;   // Part of range of values, added above and below fitted points
+
+    /**
+     * Receives notifications on the event dispatch thread, when new points are shown
+     */
+    @FunctionalInterface
+    public interface FrameListener {
+        /**
+         * @param redraw Number of redraw, which points are shown
+         */
+        void frameShown(long redraw);
+    }
+
+    private final Solver.AsyncSolver solver;
+    private final Coordinator coordinator = Coordinator.fromProperty();  // Solve on workers, if they are specified
+    @Nullable
+    private final ResultCache cache;
+    @Nullable
+    private final Prefetcher prefetcher;
+    private final DataTable data;
+    private final XYPlot plot;
+    private final InteractivePanel interactivePanel;
+    private volatile ParameterizedMap map = StandardMap.LOGISTIC;
+    private volatile long currentRedraw;    // For showing only last set of points
+    private long fitRedraw;     // Redraw, after which range of values is fitted to points
+    @Nullable
+    private volatile FrameListener frameListener;
+
+    public DiagramView() {
+        this(null, false);
+    }
+
+    /**
+     * @param cache    Cache of solved ranges, or null if they shouldn't be cached
+     * @param prefetch Solve neighbours of shown range, while diagram is not moved
+     */
+    public DiagramView(@Nullable ResultCache cache, boolean prefetch) {
+        this.cache = cache;
+        this.prefetcher = prefetch ? new Prefetcher(map, REFINEMENTS, EPS, MAX_ITERATIONS) : null;
+        solver = new Solver.AsyncSolver();
+        solver.setContinuation(true);
+
+        data = new DataTable(Double.class, Double.class);
+        plot = new XYPlot();
+
+        fillDataTable(data, map.getMinR(), map.getMaxR(), Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, ++currentRedraw);
+        plot.add(data);
+
+        // No need to scroll closer then EPS
+        plot.getNavigator().setZoomMax(1 / EPS);
+
+        // set colors
+        Color color = new Color(0.0f, 0.0f, 1.0f);
+        Color red = new Color(1.0f, 0.0f, 0.0f);
+        for (PointRenderer pR : plot.getPointRenderers(data)) {
+            pR.setColor(red);
+        }
+        for (LineRenderer lR : plot.getLineRenderers(data)) {
+            lR.setColor(color);
+        }
+
+        plot.getAxis(XYPlot.AXIS_X).setAutoscaled(false);
+        plot.getAxis(XYPlot.AXIS_Y).setAutoscaled(false);
+
+        interactivePanel = new InteractivePanel(plot);
+
+        plot.getNavigator().addNavigationListener(new NavigationListener() {
+            @Override
+            public void centerChanged(NavigationEvent<PointND<? extends Number>> navigationEvent) {
+                Axis axisX = plot.getAxis(XYPlot.AXIS_X);
+                Axis axisY = plot.getAxis(XYPlot.AXIS_Y);
+                double left = axisX.getMin().doubleValue();
+                double right = axisX.getMax().doubleValue();
+                double top = axisY.getMax().doubleValue();
+                double bottom = axisY.getMin().doubleValue();
+                redrawPoints(left, right, bottom, top);
+            }
+
+            @Override
+            public void zoomChanged(NavigationEvent<Double> navigationEvent) {
+                Axis axisX = plot.getAxis(XYPlot.AXIS_X);
+                Axis axisY = plot.getAxis(XYPlot.AXIS_Y);
+                double left = axisX.getMin().doubleValue();
+                double right = axisX.getMax().doubleValue();
+                double bottom = axisY.getMin().doubleValue();
+                double top = axisY.getMax().doubleValue();
+
+                // Scale event comes before real scale of axis
+                if (navigationEvent.getValueOld() > navigationEvent.getValueNew()) {
+                    double scale = navigationEvent.getValueNew() / navigationEvent.getValueOld();
+                    Pair<Double, Double> scaledX = scale(left, right, scale);
+                    Pair<Double, Double> scaledY = scale(bottom, top, scale);
+                    left = scaledX.getFirst();
+                    right = scaledX.getSecond();
+                    bottom = scaledY.getFirst();
+                    top = scaledY.getSecond();
+                }
+                redrawPoints(left, right, bottom, top);
+            }
+
+            private void redrawPoints(double left, double right, double bottom, double top) {
+                fillDataTable(data, left, right, bottom, top, ++currentRedraw);
+            }
+
+            @Nonnull
+            private Pair<Double, Double> scale(double left, double right, double scale) {
+                double middle = (left + right) / 2;
+                double length = (right - left) / scale;
+                left = middle - length / 2;
+                right = middle + length / 2;
+                return new Pair<>(left, right);
+
+            }
+        });
+    }
+
+    @Nonnull
+    public XYPlot getPlot() {
+        return plot;
+    }
+
+    @Nonnull
+    public InteractivePanel getInteractivePanel() {
+        return interactivePanel;
+    }
+
+    /**
+     * @return Number of the last requested redraw
+     */
+    public long getCurrentRedraw() {
+        return currentRedraw;
+    }
+
+    @Nonnull
+    public ParameterizedMap getMap() {
+        return map;
+    }
+
+    /**
+     * Show diagram of other map. Whole range of parameters of map is shown, range of values is fitted to points.
+     * Should be called on the event dispatch thread.
+     *
+     * @param map Map to show
+     */
+    public void setMap(@Nonnull ParameterizedMap map) {
+        this.map = map;
+        if (prefetcher != null) {
+            prefetcher.setMap(map);
+        }
+        plot.getAxis(XYPlot.AXIS_X).setRange(map.getMinR(), map.getMaxR());
+        fitRedraw = ++currentRedraw;
+        fillDataTable(data, map.getMinR(), map.getMaxR(), Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                fitRedraw);
+    }
+
+    public void setFrameListener(@Nullable FrameListener frameListener) {
+        this.frameListener = frameListener;
+    }
+
+    private void fillDataTable(DataTable data, double minX, double maxX, double minY, double maxY, long redraw) {
+        final ParameterizedMap map = this.map;
+        final double finalMinX = Math.max(map.getMinR(), minX);
+        final double finalMaxX = Math.min(map.getMaxR(), maxX);
+        // One parameter per pixel column, and more near bifurcations
+        final int columns = interactivePanel != null && interactivePanel.getWidth() > 0
+                ? interactivePanel.getWidth() : DEFAULT_COLUMNS;
+        final double step = (finalMaxX - finalMinX) / columns;
+        if (prefetcher != null) {
+            prefetcher.cancel();
+        }
+
+        SwingWorker<List<Pair<Double, List<Double>>>, Void> worker = new SwingWorker<List<Pair<Double, List<Double>>>, Void>() {
+            @Override
+            protected List<Pair<Double, List<Double>>> doInBackground() throws Exception {
+                if (prefetcher != null) {
+                    List<Pair<Double, List<Double>>> prefetched = prefetcher.lookup(finalMinX, finalMaxX, step);
+                    if (prefetched != null) {
+                        return prefetched;
+                    }
+                }
+                List<Pair<Double, List<Double>>> result = solve(map, finalMinX, finalMaxX, columns);
+                if (prefetcher != null) {
+                    prefetcher.add(map, finalMinX, finalMaxX, step, result);
+                }
+                return result;
+            }
+
+
+            @Override
+            protected void done() {
+                if (currentRedraw != redraw) {
+                    return;
+                }
+                try {
+                    List<Pair<Double, List<Double>>> points = get();
+                    List<Pair<Double, Double>> shown = new ArrayList<>();
+                    data.clear();
+                    for (Pair<Double, List<Double>> point : points) {
+                        double r = point.getKey();
+                        for (Double value : point.getValue()) {
+                            if (minY < value && value < maxY) {
+                                shown.add(new Pair<>(r, value));
+                            }
+                        }
+                    }
+
+                    if (redraw == fitRedraw) {
+                        fitValues(shown);
+                    }
+                    // Use it for quickly place points on plot
+                    PlotUtils.replaceData(shown, data, plot);
+                    if (interactivePanel != null) {
+                        interactivePanel.repaint();
+                    }
+                    FrameListener listener = frameListener;
+                    if (listener != null) {
+                        listener.frameShown(redraw);
+                    }
+                    if (prefetcher != null) {
+                        prefetcher.prefetch(finalMinX, finalMaxX, step);
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    /**
+     * Set range of values to shown points and make it default state of navigator
+     */
+    private void fitValues(@Nonnull List<Pair<Double, Double>> shown) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (Pair<Double, Double> point : shown) {
+            min = Math.min(min, point.getValue());
+            max = Math.max(max, point.getValue());
+        }
+        if (!(min < max)) {
+            min -= 1;
+            max += 1;
+        }
+        double margin = (max - min) * MARGIN;
+        plot.getAxis(XYPlot.AXIS_Y).setRange(min - margin, max + margin);
+        plot.getNavigator().setDefaultState();
+    }
+
+    /**
+     * Load points from cache, or solve them on workers or locally
+     */
+    @Nonnull
+    private List<Pair<Double, List<Double>>> solve(@Nonnull ParameterizedMap map, double minX, double maxX,
+                                                   int columns) throws Exception {
+        String key = cache == null ? null
+                : ResultCache.key("chaos", map.getName(), Solver.VERSION, minX, maxX, columns, REFINEMENTS, EPS,
+                MAX_ITERATIONS);
+        if (key != null) {
+            List<Pair<Double, List<Double>>> cached = cache.load(key, DiagramView::readPoints);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        List<Pair<Double, Solver.Attractor>> attractors;
+        if (coordinator != null && map instanceof StandardMap) {
+            // Workers solve evenly spaced parameters, points near bifurcations are added locally
+            List<Pair<Double, Solver.Attractor>> solved = coordinator.solveChaos(map, minX, maxX, columns, EPS,
+                    MAX_ITERATIONS, true);
+            attractors = solver.refine(map, solved, (maxX - minX) / columns, REFINEMENTS, EPS, MAX_ITERATIONS, null);
+        } else {
+            attractors = solver.solveAdaptive(map, minX, maxX, columns, REFINEMENTS, EPS, MAX_ITERATIONS, null);
+        }
+        //noinspection ConstantConditions Not cancelled
+        List<Pair<Double, List<Double>>> result = new ArrayList<>(attractors.size());
+        for (Pair<Double, Solver.Attractor> attractor : attractors) {
+            result.add(new Pair<>(attractor.getKey(), attractor.getValue().getRoots()));
+        }
+        if (key != null) {
+            cache.store(key, out -> writePoints(result, out));
+        }
+        return result;
+    }
+
+    private static void writePoints(List<Pair<Double, List<Double>>> points, DataOutputStream out)
+            throws IOException {
+        out.writeInt(points.size());
+        for (Pair<Double, List<Double>> point : points) {
+            out.writeDouble(point.getKey());
+            out.writeInt(point.getValue().size());
+            for (double root : point.getValue()) {
+                out.writeDouble(root);
+            }
+        }
+    }
+
+    @Nonnull
+    private static List<Pair<Double, List<Double>>> readPoints(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<Pair<Double, List<Double>>> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double r = in.readDouble();
+            int rootsCount = in.readInt();
+            List<Double> roots = new ArrayList<>(rootsCount);
+            for (int j = 0; j < rootsCount; j++) {
+                roots.add(in.readDouble());
+            }
+            points.add(new Pair<>(r, roots));
+        }
+        return points;
+    }
+}
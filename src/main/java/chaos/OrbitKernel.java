@@ -0,0 +1,233 @@
+package chaos;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.Math.abs;
+
+/**
+ * Iteration loops of {@link OrbitSolver}. Class is loaded separately for every map by {@link OrbitKernels},
+ * so it should use only public classes of other packages and public members of this one.
+ *
+ * @author Danil Kolikov
+ */
+public final class OrbitKernel implements OrbitSolver {
+    /**
+     * Number of first iterations, which are not used in Lyapunov exponent estimate. Transient of orbit in
+     * periodic windows looks chaotic.
+     */
+    private static final int LYAPUNOV_TRANSIENT = 1000;
+    /**
+     * Minimal number of iterations after transient before Lyapunov exponent estimate is trusted
+     */
+    private static final int LYAPUNOV_MIN_ITERATIONS = 1000;
+    /**
+     * Estimate of Lyapunov exponent, after which orbit is considered chaotic
+     */
+    private static final double LYAPUNOV_THRESHOLD = 5e-2;
+    /**
+     * |f'| is clamped to {@code [1 / MAX_DERIVATIVE, MAX_DERIVATIVE]}, so logarithm at superstable points is finite
+     * and product of two clamped values never overflows
+     */
+    private static final double MAX_DERIVATIVE = 1e100;
+
+    private final ParameterizedMap map;
+
+    public OrbitKernel(@Nonnull ParameterizedMap map) {
+        this.map = map;
+    }
+
+    @Nonnull
+    @Override
+    public ParameterizedMap getMap() {
+        return map;
+    }
+
+    /**
+     * Absolute value of derivative of map, clamped to finite positive range
+     *
+     * @param r Parameter
+     * @param x Argument
+     * @return |f'(x)|
+     */
+    private double absDerivative(double r, double x) {
+        return Math.min(Math.max(abs(map.derivative(r, x)), 1 / MAX_DERIVATIVE), MAX_DERIVATIVE);
+    }
+
+    @Nonnull
+    @Override
+    public Solver.Attractor findAttractor(double r, double eps, int maxIterations) {
+        return findAttractor(r, eps, maxIterations, map.getStart());
+    }
+
+    @Nonnull
+    @Override
+    public Solver.Attractor findAttractor(double r, double eps, int maxIterations, double start) {
+        double current = start;
+        double lyapunovSum = 0;         // Sum of ln|f'| over all iterations
+        double product = 1;             // Product of |f'| since the last renormalization
+        int iterations = 0;
+        double transientSum = 0;        // Values of lyapunovSum and iterations at the end of transient
+        int transientIterations = 0;
+
+        int currentSkip = 1;
+        do {
+            double previous = current;
+
+            int length = 1;
+            for (; length < currentSkip; length++) {
+                current = map.apply(r, current);
+                // Default start point is critical, so derivative is taken after step
+                product *= absDerivative(r, current);
+                if (product > MAX_DERIVATIVE || product < 1 / MAX_DERIVATIVE) {
+                    lyapunovSum += Math.log(product);
+                    product = 1;
+                }
+                iterations++;
+                if (equals(previous, current, eps)) {
+                    break;
+                }
+            }
+            lyapunovSum += Math.log(product);
+            product = 1;
+            if (equals(previous, current, eps)) {
+                // cycle possibly found
+                List<Double> result = checkCycle(current, r, length, eps);
+                if (result != null) {
+                    return new Solver.Attractor(result, cycleExponent(r, result), true);
+                }
+            }
+            if (iterations < LYAPUNOV_TRANSIENT) {
+                transientSum = lyapunovSum;
+                transientIterations = iterations;
+            } else if (iterations - transientIterations >= LYAPUNOV_MIN_ITERATIONS
+                    && (lyapunovSum - transientSum) / (iterations - transientIterations) > LYAPUNOV_THRESHOLD) {
+                // orbit is chaotic, there is no cycle to find
+                break;
+            }
+            currentSkip *= 2;
+        } while (currentSkip <= maxIterations);
+
+        List<Double> extra = new ArrayList<>(10);
+        for (int i = 0; i < 10; i++) {
+            current = map.apply(r, current);
+            extra.add(current);
+        }
+        double exponent;
+        if (iterations > transientIterations) {
+            exponent = (lyapunovSum - transientSum) / (iterations - transientIterations);
+        } else {
+            // Orbit is shorter than transient
+            exponent = iterations == 0 ? 0 : lyapunovSum / iterations;
+        }
+        return new Solver.Attractor(extra, exponent, false);
+    }
+
+    /**
+     * Calculate Lyapunov exponent of converged cycle
+     *
+     * @param r     Parameter
+     * @param cycle Points of cycle
+     * @return Lyapunov exponent
+     */
+    private double cycleExponent(double r, @Nonnull List<Double> cycle) {
+        double sum = 0;
+        for (double x : cycle) {
+            sum += Math.log(absDerivative(r, x));
+        }
+        return sum / cycle.size();
+    }
+
+    /**
+     * Check that there is a cycle of converged points starting in specified position
+     *
+     * @param start  Start position of cycle
+     * @param r      Parameter
+     * @param length Length of a cycle
+     * @param eps    Epsilon
+     * @return Cycle, if there is some, or null
+     */
+    @Nullable
+    private List<Double> checkCycle(double start, double r, int length, double eps) {
+        List<Double> result = new ArrayList<>(length);
+        // get cycle
+        for (int i = 0; i < length; i++) {
+            result.add(start);
+            start = map.apply(r, start);
+        }
+        // Check that cycle converged. For do it check that every element X equals to f^length (X)
+        boolean cycleConverged = equals(start, result.get(0), eps);
+
+        for (int i = 1; i < result.size(); i++) {
+            cycleConverged &= equals(result.get(i), map.apply(r, result.get(i - 1)), eps);
+        }
+        if (cycleConverged) {
+            return result;
+        } else {
+            return null;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Solver.Attractor continueAttractor(@Nullable Solver.Attractor previous, double r, double eps,
+                                              int maxIterations) {
+        if (previous == null || !previous.isCycle()) {
+            return findAttractor(r, eps, maxIterations);
+        }
+        Solver.Attractor attractor = findAttractor(r, eps, maxIterations, previous.getRoots().get(0));
+        if (attractor.isCycle() && attractor.getRoots().size() == previous.getRoots().size()
+                && attractor.getLyapunovExponent() < 0) {
+            return attractor;
+        }
+        // Bifurcation: cycle from previous parameter may lead to wrong attractor, or become unstable and keep
+        // iterations in it, e.g. fixed point 0 of maps with f(r, 0) = 0
+        return findAttractor(r, eps, maxIterations);
+    }
+
+    @Nonnull
+    @Override
+    public double[] findConvergeSeries(double r, double eps, int maxIterations) {
+        double current = map.getStart();
+
+        double[] result = new double[16];
+        int size = 0;
+        result[size++] = current;
+        int currentSkip = 1;
+        do {
+            double previous = current;
+
+            int length = 1;
+            for (; length < currentSkip; length++) {
+                current = map.apply(r, current);
+                if (equals(previous, current, eps)) {
+                    break;
+                }
+                if (size == result.length) {
+                    result = Arrays.copyOf(result, size * 2);
+                }
+                result[size++] = current;
+            }
+            if (equals(previous, current, eps)) {
+                // cycle possibly found
+                List<Double> cycle = checkCycle(current, r, length, eps);
+                if (cycle != null) {
+                    result = Arrays.copyOf(result, size + cycle.size());
+                    for (double root : cycle) {
+                        result[size++] = root;
+                    }
+                    return result;
+                }
+            }
+            currentSkip *= 2;
+        } while (currentSkip <= maxIterations);
+        return Arrays.copyOf(result, size);
+    }
+
+    private static boolean equals(double a, double b, double eps) {
+        return abs(a - b) < eps;
+    }
+}
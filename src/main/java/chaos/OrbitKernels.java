@@ -0,0 +1,112 @@
+package chaos;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates {@link OrbitKernel} for every map from its own copy of the class. JIT collects profile of calls
+ * for every class separately, so calls of map in loops of every copy see only one implementation and are inlined.
+ * Copy is defined by own class loader, so it's in other runtime package and can use only public members
+ * of this package. Every copy is checked when it's created: if the class file can't be read or the copy
+ * can't be linked, the map uses the shared class, which is correct, but slower when several maps are used.
+ *
+ * @author Danil Kolikov
+ */
+final class OrbitKernels {
+    private static final String KERNEL_CLASS = OrbitKernel.class.getName();
+    private static final double CHECK_EPS = 1e-10;
+    private static final int CHECK_ITERATIONS = 16;
+    private static final byte[] KERNEL_BYTES = readKernel();
+    private static final Map<ParameterizedMap, OrbitSolver> solvers = new ConcurrentHashMap<>();
+
+    private OrbitKernels() {
+    }
+
+    @Nonnull
+    static OrbitSolver forMap(@Nonnull ParameterizedMap map) {
+        return solvers.computeIfAbsent(map, OrbitKernels::create);
+    }
+
+    /**
+     * @return true if solver has own copy of kernel class
+     */
+    static boolean isSpecialized(@Nonnull OrbitSolver solver) {
+        return solver.getClass() != OrbitKernel.class;
+    }
+
+    @Nonnull
+    private static OrbitSolver create(@Nonnull ParameterizedMap map) {
+        if (KERNEL_BYTES == null) {
+            System.err.println("Kernel of map " + map.getName() + " is shared: class file of kernel is not found");
+            return new OrbitKernel(map);
+        }
+        try {
+            Class<?> kernel = new KernelLoader(OrbitKernels.class.getClassLoader()).loadClass(KERNEL_CLASS);
+            OrbitSolver solver = (OrbitSolver) kernel.getConstructor(ParameterizedMap.class).newInstance(map);
+            check(solver);
+            return solver;
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            System.err.println("Kernel of map " + map.getName() + " is shared: " + e);
+            return new OrbitKernel(map);
+        }
+    }
+
+    /**
+     * Call every method of kernel, so access to members, which are not public, fails here and not in workers
+     */
+    private static void check(@Nonnull OrbitSolver solver) {
+        ParameterizedMap map = solver.getMap();
+        double r = (map.getMinR() + map.getMaxR()) / 2;
+        Solver.Attractor attractor = solver.findAttractor(r, CHECK_EPS, CHECK_ITERATIONS);
+        solver.continueAttractor(attractor, r, CHECK_EPS, CHECK_ITERATIONS);
+        solver.findConvergeSeries(r, CHECK_EPS, CHECK_ITERATIONS);
+    }
+
+    private static byte[] readKernel() {
+        try (InputStream in = OrbitKernel.class.getResourceAsStream(OrbitKernel.class.getSimpleName() + ".class")) {
+            if (in == null) {
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Defines own copy of kernel class, other classes are loaded by parent
+     */
+    private static class KernelLoader extends ClassLoader {
+        KernelLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!KERNEL_CLASS.equals(name)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    loaded = defineClass(name, KERNEL_BYTES, 0, KERNEL_BYTES.length);
+                }
+                if (resolve) {
+                    resolveClass(loaded);
+                }
+                return loaded;
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package chaos;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Finds attractors and series of iterations of one {@link ParameterizedMap}.
+ *
+ * @author Danil Kolikov
+ */
+public interface OrbitSolver {
+    /**
+     * Returns solver for the map. Every map gets own copy of iteration loops, so calls of the map in them
+     * stay monomorphic and are inlined by JIT, as if the map was written in the loops.
+     *
+     * @param map Map to iterate
+     * @return Solver of the map
+     */
+    @Nonnull
+    static OrbitSolver of(@Nonnull ParameterizedMap map) {
+        return OrbitKernels.forMap(map);
+    }
+
+    @Nonnull
+    ParameterizedMap getMap();
+
+    /**
+     * Find all roots of {@code x = f(r, x)} to which method of simple iteration converges together with
+     * Lyapunov exponent of the orbit. Search of cycle stops early if the exponent is positive.
+     * Iterations start from {@link ParameterizedMap#getStart()}.
+     *
+     * @param r   Parameter
+     * @param eps Epsilon
+     * @return Roots and Lyapunov exponent
+     */
+    @Nonnull
+    Solver.Attractor findAttractor(double r, double eps, int maxIterations);
+
+    /**
+     * Same as {@link #findAttractor(double, double, int)}, but iterations start from specified point.
+     * Start from a point of attractor for close parameter skips most of transient iterations.
+     *
+     * @param r     Parameter
+     * @param eps   Epsilon
+     * @param start Start point of iterations
+     * @return Roots and Lyapunov exponent
+     */
+    @Nonnull
+    Solver.Attractor findAttractor(double r, double eps, int maxIterations, double start);
+
+    /**
+     * Find attractor starting from attractor for previous parameter. Falls back to default start point if there is
+     * no previous cycle, period of cycle changed or cycle isn't stable.
+     *
+     * @param previous Attractor for previous parameter, or null
+     * @param r        Parameter
+     * @param eps      Epsilon
+     * @return Roots and Lyapunov exponent
+     */
+    @Nonnull
+    Solver.Attractor continueAttractor(@Nullable Solver.Attractor previous, double r, double eps, int maxIterations);
+
+    /**
+     * Find series of points, starting from {@link ParameterizedMap#getStart()} to all roots
+     *
+     * @param r   Parameter
+     * @param eps Epsilon
+     * @return Series of points, length of array is number of points
+     */
+    @Nonnull
+    double[] findConvergeSeries(double r, double eps, int maxIterations);
+}
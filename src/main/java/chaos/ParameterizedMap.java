@@ -0,0 +1,54 @@
+package chaos;
+
+import javax.annotation.Nonnull;
+
+/**
+ * One-dimensional map {@code x -> f(r, x)} with parameter {@code r}, which is iterated by {@link OrbitSolver}.
+ * Implementations should be stateless, so one map can be iterated from several threads.
+ *
+ * @author Danil Kolikov
+ */
+public interface ParameterizedMap {
+    /**
+     * @return Name of map, e.g. for keys of cache
+     */
+    @Nonnull
+    String getName();
+
+    /**
+     * @param r Parameter
+     * @param x Argument
+     * @return Value of map
+     */
+    double apply(double r, double x);
+
+    /**
+     * Derivative of map by {@code x}, is used for Lyapunov exponent. Maps without analytic derivative may use
+     * default central difference.
+     *
+     * @param r Parameter
+     * @param x Argument
+     * @return Value of derivative
+     */
+    default double derivative(double r, double x) {
+        double h = 1e-7 * Math.max(1, Math.abs(x));
+        return (apply(r, x + h) - apply(r, x - h)) / (2 * h);
+    }
+
+    /**
+     * @return Start point of iterations, usually critical point of map
+     */
+    default double getStart() {
+        return 0.5;
+    }
+
+    /**
+     * @return Minimal parameter of bifurcation diagram
+     */
+    double getMinR();
+
+    /**
+     * @return Maximal parameter of bifurcation diagram
+     */
+    double getMaxR();
+}
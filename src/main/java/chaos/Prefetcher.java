@@ -0,0 +1,224 @@
+package chaos;
+
+import org.apache.commons.math3.util.Pair;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Solves neighbours of the shown range of parameters while user doesn't move the diagram: ranges to the left
+ * and to the right of it, and range of the next zoom out. Works on at most a half of cores and is interrupted
+ * by every real request, so it doesn't slow down solving of shown range. Solved ranges, including shown ones,
+ * are kept in a bounded store, from which requests of the same or lower density of points are assembled.
+ *
+ * @author Danil Kolikov
+ */
+class Prefetcher {
+    private static final int MAX_SEGMENTS = 16;
+    private static final double STEP_TOLERANCE = 1e-3;
+
+    private volatile ParameterizedMap map;
+    private final int refinements;
+    private final double eps;
+    private final int maxIterations;
+    private final Solver.AsyncSolver solver;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Prefetcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong generation = new AtomicLong();    // Is increased by every real request
+    @Nullable
+    private volatile Future<?> running;     // The last started prefetching
+    private final LinkedList<Segment> segments = new LinkedList<>();    // The most recently used are first
+
+    /**
+     * @param map           Map of diagram, its range of parameters bounds prefetched ranges
+     * @param refinements   Number of refinements near bifurcations, see {@link Solver.AsyncSolver#refine}
+     * @param eps           Accuracy of solver
+     * @param maxIterations Maximal number of iterations of solver
+     */
+    Prefetcher(@Nonnull ParameterizedMap map, int refinements, double eps, int maxIterations) {
+        this.map = map;
+        this.refinements = refinements;
+        this.eps = eps;
+        this.maxIterations = maxIterations;
+        solver = new Solver.AsyncSolver(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+            Thread thread = new Thread(runnable, "Prefetcher worker");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        solver.setContinuation(true);
+    }
+
+    /**
+     * Stop prefetching, should be called before every real request. Running solving is interrupted,
+     * so it doesn't compete with the request for cores.
+     *
+     * @return Future, which is done when cancelled prefetching is stopped
+     */
+    @Nonnull
+    Future<?> cancel() {
+        generation.incrementAndGet();
+        Future<?> task = running;
+        if (task != null) {
+            task.cancel(true);
+        }
+        // Executor has one thread, so this task runs after the cancelled one
+        return executor.submit(() -> {
+        });
+    }
+
+    /**
+     * Change map of diagram: prefetching is stopped and stored ranges are dropped
+     */
+    synchronized void setMap(@Nonnull ParameterizedMap map) {
+        cancel();
+        segments.clear();
+        this.map = map;
+    }
+
+    /**
+     * Store solved range
+     *
+     * @param left   Left bound of range
+     * @param right  Right bound of range
+     * @param step   Distance between parameters
+     * @param points Solved points, sorted by parameter
+     */
+    synchronized void add(double left, double right, double step, @Nonnull List<Pair<Double, List<Double>>> points) {
+        segments.addFirst(new Segment(left, right, step, points));
+        if (segments.size() > MAX_SEGMENTS) {
+            segments.removeLast();
+        }
+    }
+
+    /**
+     * Same as {@link #add(double, double, double, List)}, but range is ignored if map was changed while it was solved
+     *
+     * @param map Map, for which range was solved
+     */
+    synchronized void add(@Nonnull ParameterizedMap map, double left, double right, double step,
+                          @Nonnull List<Pair<Double, List<Double>>> points) {
+        if (map == this.map) {
+            add(left, right, step, points);
+        }
+    }
+
+    /**
+     * Assemble range from stored ones. Ranges with lower distance between parameters are thinned out,
+     * but points, where number of roots changes, are kept.
+     *
+     * @param left  Left bound of range
+     * @param right Right bound of range
+     * @param step  Distance between parameters
+     * @return Points sorted by parameter, or null if range is not covered by stored ones
+     */
+    @Nullable
+    synchronized List<Pair<Double, List<Double>>> lookup(double left, double right, double step) {
+        List<Pair<Double, List<Double>>> result = new ArrayList<>();
+        List<Segment> used = new ArrayList<>();
+        double tolerance = step * STEP_TOLERANCE;
+        double target = left;   // Next parameter, near which a point is taken
+        double cursor = left;
+        while (cursor < right) {
+            Segment best = null;
+            for (Segment segment : segments) {
+                if (segment.step <= step * (1 + STEP_TOLERANCE)
+                        && segment.left <= cursor + step && segment.right > cursor
+                        && (best == null || segment.right > best.right)) {
+                    best = segment;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            double end = Math.min(best.right, right);
+            for (Pair<Double, List<Double>> point : best.points) {
+                double r = point.getKey();
+                if (cursor <= r && r < end) {
+                    if (r >= target - tolerance) {
+                        result.add(point);
+                        target = Math.max(target + step, r + step / 2);
+                    } else if (!result.isEmpty()
+                            && result.get(result.size() - 1).getValue().size() != point.getValue().size()) {
+                        result.add(point);
+                    }
+                }
+            }
+            used.add(best);
+            cursor = best.right;
+        }
+        for (Segment segment : used) {
+            segments.remove(segment);
+            segments.addFirst(segment);
+        }
+        return result;
+    }
+
+    /**
+     * Start solving of neighbours of shown range in background
+     *
+     * @param left  Left bound of shown range
+     * @param right Right bound of shown range
+     * @param step  Distance between parameters of shown range
+     * @return Future, which is done when all neighbours are solved or prefetching is cancelled
+     */
+    @Nonnull
+    Future<?> prefetch(double left, double right, double step) {
+        long current = generation.get();
+        BooleanSupplier cancelled = () -> generation.get() != current;
+        ParameterizedMap map = this.map;
+        double minR = map.getMinR();
+        double maxR = map.getMaxR();
+        Future<?> task = executor.submit(() -> {
+            double width = right - left;
+            double center = (left + right) / 2;
+            solveSegment(map, Math.max(minR, left - width), left, step, cancelled);
+            solveSegment(map, right, Math.min(maxR, right + width), step, cancelled);
+            solveSegment(map, Math.max(minR, center - width), Math.min(maxR, center + width), step, cancelled);
+        });
+        running = task;
+        return task;
+    }
+
+    private void solveSegment(ParameterizedMap map, double left, double right, double step,
+                              BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean() || right - left < step || lookup(left, right, step) != null) {
+            return;
+        }
+        List<Pair<Double, Solver.Attractor>> attractors = solver.solveAdaptive(map, left, right,
+                (int) Math.round((right - left) / step), refinements, eps, maxIterations, cancelled);
+        if (attractors == null) {
+            return;
+        }
+        List<Pair<Double, List<Double>>> points = new ArrayList<>(attractors.size());
+        for (Pair<Double, Solver.Attractor> attractor : attractors) {
+            points.add(new Pair<>(attractor.getKey(), attractor.getValue().getRoots()));
+        }
+        add(map, left, right, step, points);
+    }
+
+    private static class Segment {
+        private final double left;
+        private final double right;
+        private final double step;
+        private final List<Pair<Double, List<Double>>> points;
+
+        Segment(double left, double right, double step, List<Pair<Double, List<Double>>> points) {
+            this.left = left;
+            this.right = right;
+            this.step = step;
+            this.points = points;
+        }
+    }
+}
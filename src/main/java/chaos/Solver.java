@@ -10,6 +10,9 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 import static java.lang.Math.abs;
 
@@ -20,15 +23,14 @@ import static java.lang.Math.abs;
  */
 public class Solver {
     /**
-     * Required function
-     *
-     * @param r Parameter
-     * @param x Argument
-     * @return Result
+     * Version of algorithm, is increased when results change, see {@link base.ResultCache#key}
      */
-    private static double f(double r, double x) {
-        return r * x * (1 - x);
-    }
+    public static final int VERSION = 2;
+
+    /**
+     * Solver of the default map {@code r * x * (1 - x)}
+     */
+    private static final OrbitSolver LOGISTIC = OrbitSolver.of(StandardMap.LOGISTIC);
 
     /**
      * Find all roots of x = r * x * (1 - x) to which method of simple iteration converges
@@ -39,64 +41,42 @@ public class Solver {
      */
     @Nonnull
     public static List<Double> findRoots(double r, double eps, int maxIterations) {
-        double current = 0.5;
-
-        int currentSkip = 1;
-        do {
-            double previous = current;
-
-            int length = 1;
-            for (; length < currentSkip; length++) {
-                current = f(r, current);
-                if (equals(previous, current, eps)) {
-                    break;
-                }
-            }
-            if (equals(previous, current, eps)) {
-                // cycle possibly found
-                List<Double> result = checkCycle(current, r, length, eps);
-                if (result != null) {
-                    return result;
-                }
-            }
-            currentSkip *= 2;
-        } while (currentSkip <= maxIterations);
+        return findAttractor(r, eps, maxIterations).getRoots();
+    }
 
-        List<Double> extra = new ArrayList<>(10);
-        for (int i = 0; i < 10; i++) {
-            extra.add(f(r, current));
-        }
-        return extra;
+    /**
+     * Find all roots of x = r * x * (1 - x) to which method of simple iteration converges together with
+     * Lyapunov exponent of the orbit. Search of cycle stops early if the exponent is positive.
+     *
+     * @param r   Parameter
+     * @param eps Epsilon
+     * @return Roots and Lyapunov exponent
+     */
+    @Nonnull
+    public static Attractor findAttractor(double r, double eps, int maxIterations) {
+        return LOGISTIC.findAttractor(r, eps, maxIterations);
     }
 
     /**
-     * Check that there is a cycle of converged points starting in specified position
+     * Same as {@link #findAttractor(double, double, int)}, but iterations start from specified point.
+     * Start from a point of attractor for close parameter skips most of transient iterations.
      *
-     * @param start  Start position of cycle
-     * @param r      Parameter
-     * @param length Length of a cycle
-     * @param eps    Epsilon
-     * @return Cycle, if there is some, or null
+     * @param r     Parameter
+     * @param eps   Epsilon
+     * @param start Start point of iterations
+     * @return Roots and Lyapunov exponent
      */
-    @Nullable
-    private static List<Double> checkCycle(double start, double r, int length, double eps) {
-        List<Double> result = new ArrayList<>(length);
-        // get cycle
-        for (int i = 0; i < length; i++) {
-            result.add(start);
-            start = f(r, start);
-        }
-        // Check that cycle converged. For do it check that every element X equals to f^length (X)
-        boolean cycleConverged = equals(start, result.get(0), eps);
+    @Nonnull
+    public static Attractor findAttractor(double r, double eps, int maxIterations, double start) {
+        return LOGISTIC.findAttractor(r, eps, maxIterations, start);
+    }
 
-        for (int i = 1; i < result.size(); i++) {
-            cycleConverged &= equals(result.get(i), f(r, result.get(i - 1)), eps);
-        }
-        if (cycleConverged) {
-            return result;
-        } else {
-            return null;
-        }
+    /**
+     * See {@link OrbitSolver#continueAttractor}
+     */
+    @Nonnull
+    static Attractor continueAttractor(@Nullable Attractor previous, double r, double eps, int maxIterations) {
+        return LOGISTIC.continueAttractor(previous, r, eps, maxIterations);
     }
 
     private static boolean equals(double a, double b, double eps) {
@@ -112,68 +92,299 @@ public class Solver {
      */
     @Nonnull
     public static List<Double> findConvergeSeries(double r, double eps, int maxIterations) {
-        double current = 0.5;
-
-        List<Double> result = new ArrayList<>();
-        result.add(current);
-        int currentSkip = 1;
-        do {
-            double previous = current;
-
-            int length = 1;
-            for (; length < currentSkip; length++) {
-                current = f(r, current);
-                if (equals(previous, current, eps)) {
-                    break;
+        double[] series = findConvergeSeriesArray(r, eps, maxIterations);
+        List<Double> result = new ArrayList<>(series.length);
+        for (double point : series) {
+            result.add(point);
+        }
+        return result;
+    }
+
+    /**
+     * Same as {@link #findConvergeSeries}, but points are stored in primitive array, so long series
+     * take several times less memory
+     *
+     * @param r   Parameter
+     * @param eps Epsilon
+     * @return Series of points, length of array is number of points
+     */
+    @Nonnull
+    public static double[] findConvergeSeriesArray(double r, double eps, int maxIterations) {
+        return LOGISTIC.findConvergeSeries(r, eps, maxIterations);
+    }
+
+    /**
+     * Roots to which iterations converge and Lyapunov exponent of the orbit
+     */
+    public static class Attractor {
+        /**
+         * Roots closer than this are the same point of cycle
+         */
+        private static final double PERIOD_TOLERANCE = 1e-6;
+
+        private final List<Double> roots;
+        private final double lyapunovExponent;
+        private final boolean cycle;
+
+        public Attractor(@Nonnull List<Double> roots, double lyapunovExponent, boolean cycle) {
+            this.roots = roots;
+            this.lyapunovExponent = lyapunovExponent;
+            this.cycle = cycle;
+        }
+
+        @Nonnull
+        public List<Double> getRoots() {
+            return roots;
+        }
+
+        public double getLyapunovExponent() {
+            return lyapunovExponent;
+        }
+
+        /**
+         * @return true if iterations converged to cycle, false if roots are just some points of the orbit
+         */
+        public boolean isCycle() {
+            return cycle;
+        }
+
+        /**
+         * @return Number of different points in cycle, or 0 if iterations didn't converge to cycle
+         */
+        public int getPeriod() {
+            if (!cycle) {
+                return 0;
+            }
+            int period = 0;
+            for (int i = 0; i < roots.size(); i++) {
+                boolean repeated = false;
+                for (int j = 0; j < i && !repeated; j++) {
+                    repeated = Solver.equals(roots.get(i), roots.get(j), PERIOD_TOLERANCE);
+                }
+                if (!repeated) {
+                    period++;
                 }
-                result.add(current);
             }
-            if (equals(previous, current, eps)) {
-                // cycle possibly found
-                List<Double> cycle = checkCycle(current, r, length, eps);
-                if (cycle != null) {
-                    result.addAll(cycle);
-                    return result;
+            return period;
+        }
+
+        /**
+         * Check that other attractor is the same cycle. Periods are not compared, because cycle found with
+         * low accuracy may contain the same point several times.
+         *
+         * @param other     Other attractor
+         * @param tolerance Maximal distance from root to the closest root of other cycle
+         * @return true if both are cycles with close points
+         */
+        boolean sameCycle(@Nonnull Attractor other, double tolerance) {
+            return cycle && other.cycle && closeRoots(roots, other.roots, tolerance)
+                    && closeRoots(other.roots, roots, tolerance);
+        }
+
+        private static boolean closeRoots(@Nonnull List<Double> roots, @Nonnull List<Double> other, double tolerance) {
+            for (double root : roots) {
+                boolean found = false;
+                for (double otherRoot : other) {
+                    if (Solver.equals(root, otherRoot, tolerance)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
                 }
             }
-            currentSkip *= 2;
-        } while (currentSkip <= maxIterations);
-        return result;
+            return true;
+        }
     }
 
     public static class AsyncSolver {
+        /**
+         * Maximal distance between roots found with and without continuation
+         */
+        private static final double VALIDATION_TOLERANCE = 1e-6;
+        /**
+         * Pairs of points closer than this part of step are not refined
+         */
+        private static final double REFINEMENT_TOLERANCE = 0.9;
+
         private final ExecutorService executorService;
         private final int threadsCount;
+        private volatile boolean continuation;
+        private volatile boolean validation;
+        private final AtomicInteger mismatches = new AtomicInteger();
+        private volatile OrbitSolver orbits = LOGISTIC;
 
         public AsyncSolver() {
-            threadsCount = Runtime.getRuntime().availableProcessors();
-            executorService = Executors.newFixedThreadPool(threadsCount);
+            this(Executors.defaultThreadFactory());
+        }
+
+        /**
+         * @param threadFactory Factory of worker threads, e.g. with low priority for background work
+         */
+        public AsyncSolver(@Nonnull ThreadFactory threadFactory) {
+            this(Runtime.getRuntime().availableProcessors(), threadFactory);
+        }
+
+        /**
+         * @param threadsCount  Number of worker threads, e.g. less than number of cores for background work
+         * @param threadFactory Factory of worker threads
+         */
+        public AsyncSolver(int threadsCount, @Nonnull ThreadFactory threadFactory) {
+            this.threadsCount = threadsCount;
+            executorService = Executors.newFixedThreadPool(threadsCount, threadFactory);
+        }
+
+        /**
+         * Enable parameter continuation: every worker starts iterations for next parameter from attractor of
+         * previous one. If period of cycle changes, parameter is solved again from default start point.
+         */
+        public void setContinuation(boolean continuation) {
+            this.continuation = continuation;
+        }
+
+        /**
+         * Set map, which is iterated by methods without map parameter. Default is {@link StandardMap#LOGISTIC}.
+         */
+        public void setMap(@Nonnull ParameterizedMap map) {
+            orbits = OrbitSolver.of(map);
+        }
+
+        @Nonnull
+        public ParameterizedMap getMap() {
+            return orbits.getMap();
+        }
+
+        /**
+         * Enable validation of continuation: every result is compared with one found from default start point.
+         * Enabling validation resets number of mismatches.
+         */
+        public void setValidation(boolean validation) {
+            if (validation) {
+                mismatches.set(0);
+            }
+            this.validation = validation;
+        }
+
+        /**
+         * @return Number of parameters since validation was enabled, for which default start point converged
+         * to a cycle, but continuation didn't find the same cycle
+         */
+        public int getMismatches() {
+            return mismatches.get();
         }
 
         public List<Pair<Double, List<Double>>> solve(double left, double right, double pointsCount,
                                                       double eps, int maxIterations) {
-            List<Pair<Double, List<Double>>> result = new ArrayList<>();
-            List<Future<List<Pair<Double, List<Double>>>>> futures = new ArrayList<>();
+            List<Pair<Double, Attractor>> attractors = solveAttractors(left, right, pointsCount, eps, maxIterations);
+            List<Pair<Double, List<Double>>> result = new ArrayList<>(attractors.size());
+            for (Pair<Double, Attractor> attractor : attractors) {
+                result.add(new Pair<>(attractor.getKey(), attractor.getValue().getRoots()));
+            }
+            return result;
+        }
+
+        /**
+         * Same as {@link #solve}, but also returns Lyapunov exponent for every parameter
+         */
+        public List<Pair<Double, Attractor>> solveAttractors(double left, double right, double pointsCount,
+                                                             double eps, int maxIterations) {
+            return solveAttractors(left, right, pointsCount, eps, maxIterations, null);
+        }
+
+        /**
+         * Same as {@link #solveAttractors(double, double, double, double, int)}, but can be cancelled.
+         * Workers check {@code cancelled} before every parameter, so they stop almost immediately. Interruption
+         * of calling thread stops workers too.
+         *
+         * @param cancelled Returns true if result is not needed anymore, may be null
+         * @return Result, or null if solving was cancelled or interrupted
+         */
+        @Nullable
+        public List<Pair<Double, Attractor>> solveAttractors(double left, double right, double pointsCount,
+                                                             double eps, int maxIterations,
+                                                             @Nullable BooleanSupplier cancelled) {
+            return solveAttractors(parameters(left, right, (int) Math.round(pointsCount)), eps, maxIterations,
+                    cancelled);
+        }
+
+        /**
+         * Solve given parameters. Every worker solves a contiguous part of them, so with continuation
+         * parameters should be sorted.
+         *
+         * @param parameters Parameters to solve
+         * @param cancelled  Returns true if result is not needed anymore, may be null
+         * @return Result in order of parameters, or null if solving was cancelled
+         */
+        @Nullable
+        public List<Pair<Double, Attractor>> solveAttractors(@Nonnull double[] parameters, double eps,
+                                                             int maxIterations, @Nullable BooleanSupplier cancelled) {
+            return solveAttractors(orbits, parameters, eps, maxIterations, cancelled);
+        }
+
+        /**
+         * Same as {@link #solveAttractors(double[], double, int, BooleanSupplier)}, but for specified map
+         * instead of the one set by {@link #setMap}
+         */
+        @Nullable
+        public List<Pair<Double, Attractor>> solveAttractors(@Nonnull ParameterizedMap map,
+                                                             @Nonnull double[] parameters, double eps,
+                                                             int maxIterations, @Nullable BooleanSupplier cancelled) {
+            return solveAttractors(OrbitSolver.of(map), parameters, eps, maxIterations, cancelled);
+        }
+
+        @Nullable
+        private List<Pair<Double, Attractor>> solveAttractors(@Nonnull OrbitSolver orbits,
+                                                              @Nonnull double[] parameters, double eps,
+                                                              int maxIterations, @Nullable BooleanSupplier cancelled) {
+            List<Pair<Double, Attractor>> result = new ArrayList<>(parameters.length);
+            List<Future<List<Pair<Double, Attractor>>>> futures = new ArrayList<>();
 
             long before = System.currentTimeMillis();
-            double totalStep = (right - left) / threadsCount;
             for (int i = 0; i < threadsCount; i++) {
-                final double currentLeft = left + totalStep * i;
-                final double currentRight = left + totalStep * (i + 1);
+                final int from = (int) ((long) parameters.length * i / threadsCount);
+                final int to = (int) ((long) parameters.length * (i + 1) / threadsCount);
 
+                final boolean continuation = this.continuation;
+                final boolean validation = this.validation;
                 futures.add(executorService.submit(() -> {
-                    List<Pair<Double, List<Double>>> points = new ArrayList<>();
-                    double step = (currentRight - currentLeft) / (pointsCount / threadsCount);
-                    for (double r = currentLeft; r < currentRight; r += step) {
-                        points.add(new Pair<>(r, findRoots(r, eps, maxIterations)));
+                    List<Pair<Double, Attractor>> points = new ArrayList<>(to - from);
+                    Attractor previous = null;
+                    for (int index = from; index < to; index++) {
+                        if (cancelled != null && cancelled.getAsBoolean() || Thread.currentThread().isInterrupted()) {
+                            return null;
+                        }
+                        double r = parameters[index];
+                        Attractor attractor = continuation
+                                ? orbits.continueAttractor(previous, r, eps, maxIterations)
+                                : orbits.findAttractor(r, eps, maxIterations);
+                        if (continuation && validation) {
+                            Attractor cold = orbits.findAttractor(r, eps, maxIterations);
+                            // Near bifurcation points cold start may not converge, when continuation does
+                            if (cold.isCycle() && !attractor.sameCycle(cold, VALIDATION_TOLERANCE)) {
+                                mismatches.incrementAndGet();
+                            }
+                        }
+                        points.add(new Pair<>(r, attractor));
+                        previous = attractor;
                     }
                     return points;
                 }));
             }
-            for (Future<List<Pair<Double, List<Double>>>> future : futures) {
+            for (Future<List<Pair<Double, Attractor>>> future : futures) {
                 try {
-                    result.addAll(future.get());
-                } catch (InterruptedException | ExecutionException e) {
+                    List<Pair<Double, Attractor>> points = future.get();
+                    if (points == null) {
+                        cancel(futures);
+                        return null;
+                    }
+                    result.addAll(points);
+                } catch (InterruptedException e) {
+                    // Caller doesn't need result anymore, so workers are stopped immediately
+                    cancel(futures);
+                    Thread.currentThread().interrupt();
+                    return null;
+                } catch (ExecutionException e) {
                     e.printStackTrace();
                 }
             }
@@ -181,5 +392,127 @@ public class Solver {
             System.out.println(after - before);
             return result;
         }
+
+        private static void cancel(@Nonnull List<? extends Future<?>> futures) {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        /**
+         * Solve {@code columns} evenly spaced parameters, and then add parameters between adjacent ones
+         * with different periods of attractors, i.e. near bifurcations. Every refinement halves distance
+         * between such parameters.
+         *
+         * @param columns     Number of evenly spaced parameters, e.g. width of plot in pixels
+         * @param refinements Maximal number of refinements
+         * @param cancelled   Returns true if result is not needed anymore, may be null
+         * @return Result sorted by parameter, or null if solving was cancelled
+         */
+        @Nullable
+        public List<Pair<Double, Attractor>> solveAdaptive(double left, double right, int columns, int refinements,
+                                                           double eps, int maxIterations,
+                                                           @Nullable BooleanSupplier cancelled) {
+            return solveAdaptive(getMap(), left, right, columns, refinements, eps, maxIterations, cancelled);
+        }
+
+        /**
+         * Same as {@link #solveAdaptive(double, double, int, int, double, int, BooleanSupplier)}, but for specified
+         * map instead of the one set by {@link #setMap}
+         */
+        @Nullable
+        public List<Pair<Double, Attractor>> solveAdaptive(@Nonnull ParameterizedMap map, double left, double right,
+                                                           int columns, int refinements, double eps,
+                                                           int maxIterations, @Nullable BooleanSupplier cancelled) {
+            List<Pair<Double, Attractor>> points = solveAttractors(map, parameters(left, right, columns), eps,
+                    maxIterations, cancelled);
+            if (points == null) {
+                return null;
+            }
+            return refine(map, points, (right - left) / columns, refinements, eps, maxIterations, cancelled);
+        }
+
+        /**
+         * Add parameters between adjacent ones with different periods of attractors
+         *
+         * @param points      Solved points sorted by parameter
+         * @param step        Distance between evenly spaced points
+         * @param refinements Maximal number of refinements
+         * @param cancelled   Returns true if result is not needed anymore, may be null
+         * @return Points with added ones sorted by parameter, or null if solving was cancelled
+         */
+        @Nullable
+        public List<Pair<Double, Attractor>> refine(@Nonnull List<Pair<Double, Attractor>> points, double step,
+                                                    int refinements, double eps, int maxIterations,
+                                                    @Nullable BooleanSupplier cancelled) {
+            return refine(getMap(), points, step, refinements, eps, maxIterations, cancelled);
+        }
+
+        /**
+         * Same as {@link #refine(List, double, int, double, int, BooleanSupplier)}, but for specified map
+         * instead of the one set by {@link #setMap}
+         */
+        @Nullable
+        public List<Pair<Double, Attractor>> refine(@Nonnull ParameterizedMap map,
+                                                    @Nonnull List<Pair<Double, Attractor>> points, double step,
+                                                    int refinements, double eps, int maxIterations,
+                                                    @Nullable BooleanSupplier cancelled) {
+            double minDistance = step * REFINEMENT_TOLERANCE;
+            for (int refinement = 0; refinement < refinements; refinement++) {
+                List<Double> middles = new ArrayList<>();
+                for (int i = 1; i < points.size(); i++) {
+                    double r = points.get(i - 1).getKey();
+                    double next = points.get(i).getKey();
+                    if (next - r >= minDistance
+                            && points.get(i - 1).getValue().getPeriod() != points.get(i).getValue().getPeriod()) {
+                        middles.add((r + next) / 2);
+                    }
+                }
+                if (middles.isEmpty()) {
+                    break;
+                }
+                double[] parameters = new double[middles.size()];
+                for (int i = 0; i < parameters.length; i++) {
+                    parameters[i] = middles.get(i);
+                }
+                List<Pair<Double, Attractor>> solved = solveAttractors(map, parameters, eps, maxIterations,
+                        cancelled);
+                if (solved == null) {
+                    return null;
+                }
+                points = merge(points, solved);
+                minDistance /= 2;
+            }
+            return points;
+        }
+
+        @Nonnull
+        private static List<Pair<Double, Attractor>> merge(@Nonnull List<Pair<Double, Attractor>> first,
+                                                           @Nonnull List<Pair<Double, Attractor>> second) {
+            List<Pair<Double, Attractor>> result = new ArrayList<>(first.size() + second.size());
+            int j = 0;
+            for (Pair<Double, Attractor> point : first) {
+                while (j < second.size() && second.get(j).getKey() < point.getKey()) {
+                    result.add(second.get(j++));
+                }
+                result.add(point);
+            }
+            result.addAll(second.subList(j, second.size()));
+            return result;
+        }
+
+        /**
+         * Evenly spaced parameters, computed from indices, so they don't drift
+         *
+         * @return {@code left + (right - left) * i / count} for {@code i} in {@code [0, count)}
+         */
+        @Nonnull
+        public static double[] parameters(double left, double right, int count) {
+            double[] parameters = new double[Math.max(count, 0)];
+            for (int i = 0; i < parameters.length; i++) {
+                parameters[i] = left + (right - left) * i / count;
+            }
+            return parameters;
+        }
     }
 }
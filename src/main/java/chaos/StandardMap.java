@@ -0,0 +1,135 @@
+package chaos;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Well-known one-dimensional maps. Every map is a class of its own, so iterations of every map
+ * are compiled separately, see {@link OrbitSolver#of}.
+ *
+ * @author Danil Kolikov
+ */
+public enum StandardMap implements ParameterizedMap {
+    /**
+     * {@code r * x * (1 - x)}
+     */
+    LOGISTIC("logistic", -2, 4) {
+        @Override
+        public double apply(double r, double x) {
+            return r * x * (1 - x);
+        }
+
+        @Override
+        public double derivative(double r, double x) {
+            return r * (1 - 2 * x);
+        }
+    },
+    /**
+     * {@code r * sin(pi * x)}
+     */
+    SINE("sine", 0, 1) {
+        @Override
+        public double apply(double r, double x) {
+            return r * Math.sin(Math.PI * x);
+        }
+
+        @Override
+        public double derivative(double r, double x) {
+            return r * Math.PI * Math.cos(Math.PI * x);
+        }
+    },
+    /**
+     * {@code r * min(x, 1 - x)}
+     */
+    TENT("tent", 0, 2) {
+        @Override
+        public double apply(double r, double x) {
+            return r * Math.min(x, 1 - x);
+        }
+
+        @Override
+        public double derivative(double r, double x) {
+            return x < 0.5 ? r : -r;
+        }
+    },
+    /**
+     * {@code exp(-alpha * x^2) + r} with {@code alpha = 6.2}
+     */
+    GAUSS("gauss", -1, 1) {
+        @Override
+        public double apply(double r, double x) {
+            return Math.exp(-GAUSS_ALPHA * x * x) + r;
+        }
+
+        @Override
+        public double derivative(double r, double x) {
+            return -2 * GAUSS_ALPHA * x * Math.exp(-GAUSS_ALPHA * x * x);
+        }
+
+        @Override
+        public double getStart() {
+            return 0;
+        }
+    },
+    /**
+     * {@code r * x * (1 - x^2)}
+     */
+    CUBIC("cubic", 0, 2.6) {
+        @Override
+        public double apply(double r, double x) {
+            return r * x * (1 - x * x);
+        }
+
+        @Override
+        public double derivative(double r, double x) {
+            return r * (1 - 3 * x * x);
+        }
+
+        @Override
+        public double getStart() {
+            return 1 / Math.sqrt(3);
+        }
+    };
+
+    private static final double GAUSS_ALPHA = 6.2;
+
+    private final String name;
+    private final double minR;
+    private final double maxR;
+
+    StandardMap(String name, double minR, double maxR) {
+        this.name = name;
+        this.minR = minR;
+        this.maxR = maxR;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public double getMinR() {
+        return minR;
+    }
+
+    @Override
+    public double getMaxR() {
+        return maxR;
+    }
+
+    /**
+     * @param name Name of map, see {@link #getName()}
+     * @return Map with this name
+     * @throws IllegalArgumentException if there is no such map
+     */
+    @Nonnull
+    public static StandardMap forName(@Nonnull String name) {
+        for (StandardMap map : values()) {
+            if (map.name.equals(name)) {
+                return map;
+            }
+        }
+        throw new IllegalArgumentException("Unknown map: " + name);
+    }
+}
@@ -0,0 +1,117 @@
+package distributed;
+
+import chaos.ParameterizedMap;
+import chaos.Solver;
+import chaos.StandardMap;
+import org.apache.commons.math3.util.Pair;
+
+import javax.annotation.Nonnull;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Range of indices of parameters from {@link Solver.AsyncSolver#parameters}, which are solved by
+ * {@link Solver.AsyncSolver#solveAttractors}
+ *
+ * @author Danil Kolikov
+ */
+class ChaosTask implements Task<List<Pair<Double, Solver.Attractor>>> {
+    private final String map;
+    private final double left, right;
+    private final int pointsCount, from, to;
+    private final double eps;
+    private final int maxIterations;
+    private final boolean continuation;
+
+    ChaosTask(@Nonnull String map, double left, double right, int pointsCount, int from, int to, double eps,
+              int maxIterations, boolean continuation) {
+        this.map = map;
+        this.left = left;
+        this.right = right;
+        this.pointsCount = pointsCount;
+        this.from = from;
+        this.to = to;
+        this.eps = eps;
+        this.maxIterations = maxIterations;
+        this.continuation = continuation;
+    }
+
+    @Override
+    public void writeRequest(@Nonnull DataOutputStream out) throws IOException {
+        out.writeByte(CHAOS);
+        out.writeUTF(map);
+        out.writeDouble(left);
+        out.writeDouble(right);
+        out.writeInt(pointsCount);
+        out.writeInt(from);
+        out.writeInt(to);
+        out.writeDouble(eps);
+        out.writeInt(maxIterations);
+        out.writeBoolean(continuation);
+    }
+
+    @Nonnull
+    @Override
+    public List<Pair<Double, Solver.Attractor>> readResult(@Nonnull DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<Pair<Double, Solver.Attractor>> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double r = in.readDouble();
+            double lyapunovExponent = in.readDouble();
+            boolean cycle = in.readBoolean();
+            int rootsCount = in.readInt();
+            List<Double> roots = new ArrayList<>(rootsCount);
+            for (int j = 0; j < rootsCount; j++) {
+                roots.add(in.readDouble());
+            }
+            points.add(new Pair<>(r, new Solver.Attractor(roots, lyapunovExponent, cycle)));
+        }
+        return points;
+    }
+
+    /**
+     * Read parameters of task, solve it and write result. Type of task is already read.
+     *
+     * @param solver Solver of worker
+     * @param in     Stream from coordinator
+     * @param out    Stream to coordinator
+     */
+    static void execute(@Nonnull Solver.AsyncSolver solver, @Nonnull DataInputStream in,
+                        @Nonnull DataOutputStream out) throws IOException {
+        ParameterizedMap map = StandardMap.forName(in.readUTF());
+        double left = in.readDouble();
+        double right = in.readDouble();
+        int pointsCount = in.readInt();
+        int from = in.readInt();
+        int to = in.readInt();
+        double eps = in.readDouble();
+        int maxIterations = in.readInt();
+        boolean continuation = in.readBoolean();
+
+        List<Pair<Double, Solver.Attractor>> points;
+        // Map and continuation are settings of solver, so tasks from different connections shouldn't mix
+        synchronized (solver) {
+            solver.setMap(map);
+            solver.setContinuation(continuation);
+            points = solver.solveAttractors(Arrays.copyOfRange(Solver.AsyncSolver.parameters(left, right, pointsCount),
+                    from, to), eps, maxIterations, null);
+        }
+
+        out.writeByte(STATUS_OK);
+        out.writeInt(points.size());
+        for (Pair<Double, Solver.Attractor> point : points) {
+            Solver.Attractor attractor = point.getValue();
+            out.writeDouble(point.getKey());
+            out.writeDouble(attractor.getLyapunovExponent());
+            out.writeBoolean(attractor.isCycle());
+            out.writeInt(attractor.getRoots().size());
+            for (double root : attractor.getRoots()) {
+                out.writeDouble(root);
+            }
+        }
+    }
+}
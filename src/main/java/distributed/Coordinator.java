@@ -0,0 +1,265 @@
+package distributed;
+
+import fractal.SolverConfig;
+import org.apache.commons.math3.util.Pair;
+import org.jblas.ComplexDouble;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Splits requests to tasks and sends them to {@link Worker}s. Tasks of lost worker are sent to other ones,
+ * results are returned in the same order as from local solvers.
+ *
+ * @author Danil Kolikov
+ */
+public class Coordinator {
+    /**
+     * System property with comma-separated list of workers, e.g. {@code localhost:4000,localhost:4001}
+     */
+    public static final String WORKERS_PROPERTY = "cms.workers";
+
+    /**
+     * Size of tasks doesn't depend on size of request, so every task is solved in time much less than
+     * {@link #READ_TIMEOUT}
+     */
+    private static final int COLUMNS_PER_TASK = 40;
+    private static final int PARAMETERS_PER_TASK = 250;
+    private static final int CONNECT_TIMEOUT = 5_000;
+    private static final int READ_TIMEOUT = 60_000;
+    private static final long POLL_TIMEOUT = 100;
+
+    /**
+     * Receives notifications on threads of coordinator, when task is sent to worker
+     */
+    @FunctionalInterface
+    interface TaskListener {
+        /**
+         * @param worker Address of worker
+         * @param index  Index of task in request
+         */
+        void taskSent(@Nonnull InetSocketAddress worker, int index);
+    }
+
+    private final List<InetSocketAddress> workers;
+    private final ExecutorService executor;
+    @Nullable
+    private volatile TaskListener taskListener;
+
+    public Coordinator(@Nonnull List<InetSocketAddress> workers) {
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("No workers");
+        }
+        this.workers = new ArrayList<>(workers);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "Coordinator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Create coordinator for workers from {@link #WORKERS_PROPERTY}
+     *
+     * @return Coordinator, or null if property is not set
+     */
+    @Nullable
+    public static Coordinator fromProperty() {
+        String property = System.getProperty(WORKERS_PROPERTY);
+        if (property == null || property.trim().isEmpty()) {
+            return null;
+        }
+        List<InetSocketAddress> workers = new ArrayList<>();
+        for (String worker : property.split(",")) {
+            String[] hostAndPort = worker.trim().split(":");
+            workers.add(new InetSocketAddress(hostAndPort[0], Integer.parseInt(hostAndPort[1])));
+        }
+        return new Coordinator(workers);
+    }
+
+    /**
+     * Same as {@link fractal.Solver#solve(ComplexDouble, ComplexDouble, SolverConfig)}, but tasks are solved by
+     * workers. Only function and grid size of {@link fractal.Solver#DEFAULT_CONFIG} are supported.
+     *
+     * @param a      the most left and down point of the rectangle
+     * @param b      the most right and up point of the rectangle
+     * @param config configuration of request
+     * @return list of colored points
+     */
+    public List<fractal.Solver.ColoredPoint> solveFractal(ComplexDouble a, ComplexDouble b,
+                                                          @Nonnull SolverConfig config) throws IOException {
+        if (a.real() > b.real() || (a.real() == b.real() && a.imag() > b.imag())) {
+            throw new IllegalArgumentException("Input points are not in lexicographical order");
+        }
+        if (config.getF() != fractal.Solver.DEFAULT_CONFIG.getF()
+                || config.getPointsPerAxis() != fractal.Solver.DEFAULT_CONFIG.getPointsPerAxis()) {
+            throw new IllegalArgumentException("Workers can solve only default function and grid");
+        }
+
+        List<FractalTask> tasks = new ArrayList<>();
+        for (int column = 0; column < config.getPointsPerAxis(); column += COLUMNS_PER_TASK) {
+            int toColumn = Math.min(column + COLUMNS_PER_TASK, config.getPointsPerAxis());
+            tasks.add(new FractalTask(a.real(), b.real(), a.imag(), b.imag(), column, toColumn,
+                    config.getAccuracy(), config.getMaxIterations(), config.getMethod(), config.getRelaxation()));
+        }
+        List<fractal.Solver.ColoredPoint> result = new ArrayList<>();
+        for (List<fractal.Solver.ColoredPoint> points : run(tasks)) {
+            result.addAll(points);
+        }
+        return result;
+    }
+
+    /**
+     * Same as {@link chaos.Solver.AsyncSolver#solveAttractors}, but ranges of parameters are solved by workers
+     *
+     * @param continuation Use parameter continuation, see {@link chaos.Solver.AsyncSolver#setContinuation}
+     * @return list of parameters with attractors
+     */
+    public List<Pair<Double, chaos.Solver.Attractor>> solveChaos(double left, double right, double pointsCount,
+                                                                 double eps, int maxIterations,
+                                                                 boolean continuation) throws IOException {
+        return solveChaos(chaos.StandardMap.LOGISTIC, left, right, pointsCount, eps, maxIterations, continuation);
+    }
+
+    /**
+     * Same as {@link #solveChaos(double, double, double, double, int, boolean)}, but for specified map
+     *
+     * @param map Map to iterate, workers can solve only {@link chaos.StandardMap}
+     * @return list of parameters with attractors
+     */
+    public List<Pair<Double, chaos.Solver.Attractor>> solveChaos(@Nonnull chaos.ParameterizedMap map,
+                                                                 double left, double right, double pointsCount,
+                                                                 double eps, int maxIterations,
+                                                                 boolean continuation) throws IOException {
+        if (!(map instanceof chaos.StandardMap)) {
+            throw new IllegalArgumentException("Workers can solve only standard maps");
+        }
+        int count = (int) Math.round(pointsCount);
+        List<ChaosTask> tasks = new ArrayList<>();
+        // Ranges are split by indices of parameters, so parameters are the same as in local solver
+        for (int from = 0; from < count; from += PARAMETERS_PER_TASK) {
+            int to = Math.min(from + PARAMETERS_PER_TASK, count);
+            tasks.add(new ChaosTask(map.getName(), left, right, count, from, to, eps, maxIterations, continuation));
+        }
+        List<Pair<Double, chaos.Solver.Attractor>> result = new ArrayList<>();
+        for (List<Pair<Double, chaos.Solver.Attractor>> points : run(tasks)) {
+            result.addAll(points);
+        }
+        return result;
+    }
+
+    void setTaskListener(@Nullable TaskListener taskListener) {
+        this.taskListener = taskListener;
+    }
+
+    /**
+     * Solve tasks on workers. Every worker takes tasks from common queue, task of lost worker is returned to queue.
+     *
+     * @param tasks Tasks to solve
+     * @param <T>   Type of result
+     * @return Results in order of tasks
+     */
+    @Nonnull
+    private <T> List<T> run(@Nonnull List<? extends Task<T>> tasks) throws IOException {
+        BlockingQueue<Integer> queue = new LinkedBlockingQueue<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            queue.add(i);
+        }
+        AtomicReferenceArray<T> results = new AtomicReferenceArray<>(tasks.size());
+        AtomicInteger remaining = new AtomicInteger(tasks.size());
+        AtomicReference<IOException> failure = new AtomicReference<>();
+
+        List<Future<?>> futures = new ArrayList<>(workers.size());
+        for (InetSocketAddress worker : workers) {
+            futures.add(executor.submit(() -> {
+                try {
+                    runOnWorker(worker, tasks, queue, results, remaining, failure);
+                } catch (IOException e) {
+                    System.err.println("Lost worker " + worker + ": " + e);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IOException(e);
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        if (remaining.get() > 0) {
+            throw new IOException("All workers are lost, " + remaining.get() + " tasks are not solved");
+        }
+        List<T> result = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            result.add(results.get(i));
+        }
+        return result;
+    }
+
+    private <T> void runOnWorker(@Nonnull InetSocketAddress worker, @Nonnull List<? extends Task<T>> tasks,
+                                 @Nonnull BlockingQueue<Integer> queue, @Nonnull AtomicReferenceArray<T> results,
+                                 @Nonnull AtomicInteger remaining, @Nonnull AtomicReference<IOException> failure)
+            throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(worker, CONNECT_TIMEOUT);
+            socket.setSoTimeout(READ_TIMEOUT);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            // Tasks of lost workers may come back to queue, so wait until all tasks are solved
+            while (remaining.get() > 0 && failure.get() == null) {
+                Integer index;
+                try {
+                    index = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (index == null) {
+                    continue;
+                }
+                Task<T> task = tasks.get(index);
+                try {
+                    task.writeRequest(out);
+                    out.flush();
+                    TaskListener listener = taskListener;
+                    if (listener != null) {
+                        listener.taskSent(worker, index);
+                    }
+                    byte status = in.readByte();
+                    if (status != Task.STATUS_OK) {
+                        // Task fails on every worker, there is no reason to retry
+                        failure.compareAndSet(null, new IOException("Task failed on " + worker + ": " + in.readUTF()));
+                        return;
+                    }
+                    results.set(index, task.readResult(in));
+                    remaining.decrementAndGet();
+                } catch (IOException e) {
+                    queue.add(index);
+                    throw e;
+                }
+            }
+        }
+    }
+}
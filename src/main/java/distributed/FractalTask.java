@@ -0,0 +1,103 @@
+package distributed;
+
+import base.NewtonSolver;
+import fractal.Solver;
+import fractal.SolverConfig;
+
+import javax.annotation.Nonnull;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Columns of grid for {@link Solver#solveColumns}. Workers solve only function and grid size of
+ * {@link Solver#DEFAULT_CONFIG}.
+ *
+ * @author Danil Kolikov
+ */
+class FractalTask implements Task<List<Solver.ColoredPoint>> {
+    private final double minX, maxX;
+    private final double minY, maxY;
+    private final int fromColumn, toColumn;
+    private final double accuracy;
+    private final int maxIterations;
+    private final NewtonSolver.Method method;
+    private final double relaxation;
+
+    FractalTask(double minX, double maxX, double minY, double maxY, int fromColumn, int toColumn,
+                double accuracy, int maxIterations, NewtonSolver.Method method, double relaxation) {
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+        this.fromColumn = fromColumn;
+        this.toColumn = toColumn;
+        this.accuracy = accuracy;
+        this.maxIterations = maxIterations;
+        this.method = method;
+        this.relaxation = relaxation;
+    }
+
+    @Override
+    public void writeRequest(@Nonnull DataOutputStream out) throws IOException {
+        out.writeByte(FRACTAL);
+        out.writeDouble(minX);
+        out.writeDouble(maxX);
+        out.writeDouble(minY);
+        out.writeDouble(maxY);
+        out.writeInt(fromColumn);
+        out.writeInt(toColumn);
+        out.writeDouble(accuracy);
+        out.writeInt(maxIterations);
+        out.writeByte(method.ordinal());
+        out.writeDouble(relaxation);
+    }
+
+    @Nonnull
+    @Override
+    public List<Solver.ColoredPoint> readResult(@Nonnull DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<Solver.ColoredPoint> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double x = in.readDouble();
+            double y = in.readDouble();
+            points.add(new Solver.ColoredPoint(x, y, in.readByte()));
+        }
+        return points;
+    }
+
+    /**
+     * Read parameters of task, solve it and write result. Type of task is already read.
+     *
+     * @param solver Solver of worker
+     * @param in     Stream from coordinator
+     * @param out    Stream to coordinator
+     */
+    static void execute(@Nonnull Solver solver, @Nonnull DataInputStream in, @Nonnull DataOutputStream out)
+            throws IOException {
+        double minX = in.readDouble();
+        double maxX = in.readDouble();
+        double minY = in.readDouble();
+        double maxY = in.readDouble();
+        int fromColumn = in.readInt();
+        int toColumn = in.readInt();
+        double accuracy = in.readDouble();
+        int maxIterations = in.readInt();
+        NewtonSolver.Method method = NewtonSolver.Method.values()[in.readByte()];
+        double relaxation = in.readDouble();
+
+        SolverConfig config = Solver.DEFAULT_CONFIG.withLimits(accuracy, maxIterations)
+                .withMethod(method, relaxation);
+        List<Solver.ColoredPoint> points = solver.solveColumns(config, minX, maxX, minY, maxY, fromColumn, toColumn);
+
+        out.writeByte(STATUS_OK);
+        out.writeInt(points.size());
+        for (Solver.ColoredPoint point : points) {
+            out.writeDouble(point.getX());
+            out.writeDouble(point.getY());
+            out.writeByte(point.getColor());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package distributed;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link Worker} processes started on localhost with the same class path
+ *
+ * @author Danil Kolikov
+ */
+public class LocalWorkers implements Closeable {
+    private final List<Process> processes = new ArrayList<>();
+    private final List<InetSocketAddress> addresses = new ArrayList<>();
+
+    /**
+     * @param count Number of workers to start
+     */
+    public LocalWorkers(int count) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        try {
+            for (int i = 0; i < count; i++) {
+                Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        Worker.class.getName())
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                processes.add(process);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+                String port = reader.readLine();
+                if (port == null) {
+                    throw new IOException("Worker exited before start");
+                }
+                addresses.add(new InetSocketAddress("localhost", Integer.parseInt(port.trim())));
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Nonnull
+    public List<InetSocketAddress> getAddresses() {
+        return addresses;
+    }
+
+    /**
+     * Stop one of workers, as if it was lost
+     *
+     * @param index Index of worker
+     */
+    public void kill(int index) throws InterruptedException {
+        processes.get(index).destroy();
+        processes.get(index).waitFor();
+    }
+
+    @Override
+    public void close() {
+        for (Process process : processes) {
+            process.destroy();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package distributed;
+
+import javax.annotation.Nonnull;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Part of work, which is sent to {@link Worker}
+ *
+ * @param <T> Type of result
+ * @author Danil Kolikov
+ */
+interface Task<T> {
+    byte FRACTAL = 1;
+    byte CHAOS = 2;
+
+    byte STATUS_OK = 0;
+    byte STATUS_FAILED = 1;
+
+    /**
+     * Write type and parameters of task
+     *
+     * @param out Stream to worker
+     */
+    void writeRequest(@Nonnull DataOutputStream out) throws IOException;
+
+    /**
+     * Read result of task, status is already read
+     *
+     * @param in Stream from worker
+     * @return Result
+     */
+    @Nonnull
+    T readResult(@Nonnull DataInputStream in) throws IOException;
+}
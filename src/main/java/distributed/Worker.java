@@ -0,0 +1,85 @@
+package distributed;
+
+import javax.annotation.Nonnull;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Process, which solves tasks sent by {@link Coordinator}. Every connection is served in own thread,
+ * tasks of one connection are solved one by one.
+ * Output contains only the port, on which worker listens, logs are written to error stream.
+ *
+ * @author Danil Kolikov
+ */
+public class Worker {
+    private final fractal.Solver fractalSolver = new fractal.Solver();
+    private final chaos.Solver.AsyncSolver chaosSolver = new chaos.Solver.AsyncSolver();
+
+    private void serve(@Nonnull ServerSocket serverSocket) throws IOException {
+        while (true) {
+            Socket socket = serverSocket.accept();
+            Thread thread = new Thread(() -> serveConnection(socket), "Connection " + socket.getRemoteSocketAddress());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void serveConnection(@Nonnull Socket socket) {
+        try (Socket s = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            while (true) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    // Coordinator closed connection
+                    return;
+                }
+                try {
+                    switch (type) {
+                        case Task.FRACTAL:
+                            FractalTask.execute(fractalSolver, in, out);
+                            break;
+                        case Task.CHAOS:
+                            ChaosTask.execute(chaosSolver, in, out);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Unknown type of task: " + type);
+                    }
+                } catch (RuntimeException e) {
+                    // Request can't be read further, so connection is closed after reply
+                    out.writeByte(Task.STATUS_FAILED);
+                    out.writeUTF(String.valueOf(e));
+                    out.flush();
+                    return;
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * @param args Port to listen, random free port is used if absent
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        try (ServerSocket serverSocket = new ServerSocket(port)) {
+            // Output contains only the port, logs of solvers are written to error stream
+            PrintStream output = System.out;
+            System.setOut(System.err);
+            output.println(serverSocket.getLocalPort());
+            output.flush();
+            new Worker().serve(serverSocket);
+        }
+    }
+}
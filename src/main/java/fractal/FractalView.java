@@ -0,0 +1,288 @@
+package fractal;
+
+import base.NewtonSolver;
+import base.PlotUtils;
+import base.ResultCache;
+import de.erichseifert.gral.data.DataTable;
+import de.erichseifert.gral.navigation.NavigationEvent;
+import de.erichseifert.gral.navigation.NavigationListener;
+import de.erichseifert.gral.plots.XYPlot;
+import de.erichseifert.gral.plots.axes.Axis;
+import de.erichseifert.gral.plots.points.PointRenderer;
+import de.erichseifert.gral.ui.InteractivePanel;
+import de.erichseifert.gral.util.PointND;
+import distributed.Coordinator;
+import org.apache.commons.math3.util.Pair;
+import org.jblas.ComplexDouble;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Plot of points colored by roots, to which Newton method converges. Points are recalculated when user moves
+ * or zooms plot. Doesn't need a window, so can be used in headless mode.
+ *
+ * @author Danil Kolikov
+ */
+public class FractalView {
+    private static final Shape circle = new Ellipse2D.Double(-2.0, -2.0, 4.0, 4.0);
+
+    /**
+     * Receives notifications on the event dispatch thread, when new points are shown
+     */
+    @FunctionalInterface
+    public interface FrameListener {
+        /**
+         * @param redraw Number of redraw, which points are shown
+         */
+        void frameShown(long redraw);
+    }
+
+    private List<DataTable> pointsData = new ArrayList<>(4);
+    private XYPlot plot = new XYPlot();
+    private InteractivePanel interactivePanel;
+
+    private Solver solver = new Solver();
+    private Coordinator coordinator = Coordinator.fromProperty();    // Solve on workers, if they are specified
+    @Nullable
+    private final ResultCache cache;
+    private volatile NewtonSolver.Method method = NewtonSolver.Method.NEWTON;
+    private volatile long currentRedraw;
+    @Nullable
+    private volatile FrameListener frameListener;
+
+    public FractalView() {
+        this(null);
+    }
+
+    /**
+     * @param cache Cache of solved regions, or null if they shouldn't be cached
+     */
+    public FractalView(@Nullable ResultCache cache) {
+        this.cache = cache;
+        for (int i = 0; i < 4; i++) {
+            pointsData.add(new DataTable(Double.class, Double.class));
+            plot.add(pointsData.get(i));
+        }
+
+        plot.getNavigator().setZoomMax(Double.POSITIVE_INFINITY);
+        plot.getNavigator().setZoomMin(Double.NEGATIVE_INFINITY);
+        plot.getAxis(XYPlot.AXIS_X).setAutoscaled(false);
+        plot.getAxis(XYPlot.AXIS_Y).setAutoscaled(false);
+        plot.getNavigator().addNavigationListener(new NavigationListener() {
+            @Override
+            public void centerChanged(NavigationEvent<PointND<? extends Number>> navigationEvent) {
+                Axis axisX = plot.getAxis(XYPlot.AXIS_X);
+                Axis axisY = plot.getAxis(XYPlot.AXIS_Y);
+                double rangeX = axisX.getMax().doubleValue() - axisX.getMin().doubleValue();
+                double rangeY = axisY.getMax().doubleValue() - axisY.getMin().doubleValue();
+                ComplexDouble centerPoint = new ComplexDouble(navigationEvent.getValueNew().getPoint2D().getX(), navigationEvent.getValueNew().getPoint2D().getY());
+                ComplexDouble leftBottomPoint = new ComplexDouble(centerPoint.real() - rangeX / 2, centerPoint.imag() - rangeY / 2);
+                ComplexDouble rightTopPoint = new ComplexDouble(centerPoint.real() + rangeX / 2, centerPoint.imag() + rangeY / 2);
+                drawPoints(leftBottomPoint, rightTopPoint);
+            }
+
+            @Override
+            public void zoomChanged(NavigationEvent<Double> navigationEvent) {
+                Axis axisX = plot.getAxis(XYPlot.AXIS_X);
+                Axis axisY = plot.getAxis(XYPlot.AXIS_Y);
+                double multiplier = navigationEvent.getValueOld() / navigationEvent.getValueNew();
+                double partX = (axisX.getMax().doubleValue() - axisX.getMin().doubleValue()) / 2;
+                double partY = (axisY.getMax().doubleValue() - axisY.getMin().doubleValue()) / 2;
+                ComplexDouble leftBottomPoint = new ComplexDouble(axisX.getMin().doubleValue() + partX - partX * multiplier, axisY.getMin().doubleValue() + partY - partY * multiplier);
+                ComplexDouble rightTopPoint = new ComplexDouble(axisX.getMin().doubleValue() + partX + partX * multiplier, axisY.getMin().doubleValue() + partY + partY * multiplier);
+                drawPoints(leftBottomPoint, rightTopPoint);
+            }
+        });
+
+        interactivePanel = new InteractivePanel(plot);
+    }
+
+    @Nonnull
+    public XYPlot getPlot() {
+        return plot;
+    }
+
+    @Nonnull
+    public InteractivePanel getInteractivePanel() {
+        return interactivePanel;
+    }
+
+    @Nonnull
+    public Solver getSolver() {
+        return solver;
+    }
+
+    @Nonnull
+    public NewtonSolver.Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Set iteration scheme of Newton method, it's used from the next redraw
+     */
+    public void setMethod(@Nonnull NewtonSolver.Method method) {
+        this.method = method;
+    }
+
+    /**
+     * Returns configuration of request for rectangle with the current iteration scheme
+     *
+     * @param leftBottomPoint the most left and down point of the rectangle
+     * @param rightTopPoint   the most right and up point of the rectangle
+     * @return configuration of request
+     */
+    @Nonnull
+    public SolverConfig getConfig(ComplexDouble leftBottomPoint, ComplexDouble rightTopPoint) {
+        return solver.getConfig(leftBottomPoint, rightTopPoint).withMethod(method, NewtonSolver.DEFAULT_RELAXATION);
+    }
+
+    /**
+     * Solve points of the visible rectangle again, e.g. after change of iteration scheme
+     */
+    public void redraw() {
+        Axis axisX = plot.getAxis(XYPlot.AXIS_X);
+        Axis axisY = plot.getAxis(XYPlot.AXIS_Y);
+        drawPoints(new ComplexDouble(axisX.getMin().doubleValue(), axisY.getMin().doubleValue()),
+                new ComplexDouble(axisX.getMax().doubleValue(), axisY.getMax().doubleValue()));
+    }
+
+    /**
+     * @return Number of the last requested redraw
+     */
+    public long getCurrentRedraw() {
+        return currentRedraw;
+    }
+
+    public void setFrameListener(@Nullable FrameListener frameListener) {
+        this.frameListener = frameListener;
+    }
+
+    /**
+     * Solve points in rectangle and show them, when they are ready
+     *
+     * @param leftBottomPoint the most left and down point of the rectangle
+     * @param rightTopPoint   the most right and up point of the rectangle
+     */
+    public void drawPoints(ComplexDouble leftBottomPoint, ComplexDouble rightTopPoint) {
+        long redraw = ++currentRedraw;
+        SolverConfig config = getConfig(leftBottomPoint, rightTopPoint);
+        SwingWorker<List<Solver.ColoredPoint>, Void> worker = new SwingWorker<List<Solver.ColoredPoint>, Void>() {
+            @Override
+            protected List<Solver.ColoredPoint> doInBackground() throws Exception {
+                String key = cacheKey(leftBottomPoint, rightTopPoint, config);
+                if (key != null) {
+                    List<Solver.ColoredPoint> cached = cache.load(key, FractalView::readPoints);
+                    if (cached != null) {
+                        return cached;
+                    }
+                }
+                List<Solver.ColoredPoint> points = coordinator != null
+                        ? coordinator.solveFractal(leftBottomPoint, rightTopPoint, config)
+                        : solver.solve(leftBottomPoint, rightTopPoint, config);
+                if (key != null) {
+                    cache.store(key, out -> writePoints(points, out));
+                }
+                return points;
+            }
+
+            @Override
+            protected void done() {
+                if (currentRedraw != redraw) {
+                    return;
+                }
+                try {
+                    List<Solver.ColoredPoint> points = get();
+                    List<Pair<Double, Double>>[] shown = new List[4];
+                    for (int i = 0; i < 4; i++) {
+                        shown[i] = new ArrayList<>();
+                    }
+                    for (Solver.ColoredPoint coloredPoint : points) {
+                        int color = coloredPoint.getColor();
+                        shown[color].add(new Pair<>(coloredPoint.getX(), coloredPoint.getY()));
+                    }
+                    for (int i = 0; i < 4; i++) {
+                        PlotUtils.replaceData(shown[i], pointsData.get(i), plot);
+                    }
+                    colorPoints();
+                    if (interactivePanel != null) {
+                        interactivePanel.repaint();
+                    }
+                    FrameListener listener = frameListener;
+                    if (listener != null) {
+                        listener.frameShown(redraw);
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        worker.execute();
+    }
+
+    /**
+     * @return Key of request in cache, or null if it can't be cached
+     */
+    @Nullable
+    private String cacheKey(ComplexDouble leftBottomPoint, ComplexDouble rightTopPoint, SolverConfig config) {
+        // Functions can't be compared, so only the default one is cached
+        if (cache == null || config.getF() != Solver.DEFAULT_CONFIG.getF()) {
+            return null;
+        }
+        return ResultCache.key("fractal", Solver.FUNCTION_NAME, Solver.VERSION, config.getMethod(),
+                config.getRelaxation(), config.getAccuracy(), config.getMaxIterations(), config.getPointsPerAxis(),
+                leftBottomPoint.real(), leftBottomPoint.imag(), rightTopPoint.real(), rightTopPoint.imag());
+    }
+
+    private static void writePoints(List<Solver.ColoredPoint> points, DataOutputStream out) throws IOException {
+        out.writeInt(points.size());
+        for (Solver.ColoredPoint point : points) {
+            out.writeDouble(point.getX());
+            out.writeDouble(point.getY());
+            out.writeByte(point.getColor());
+        }
+    }
+
+    @Nonnull
+    private static List<Solver.ColoredPoint> readPoints(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<Solver.ColoredPoint> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            double x = in.readDouble();
+            double y = in.readDouble();
+            points.add(new Solver.ColoredPoint(x, y, in.readByte()));
+        }
+        return points;
+    }
+
+    private void colorPoints() {
+        for (int color = 0; color < 4; color++) {
+            for (PointRenderer pR : plot.getPointRenderers(pointsData.get(color))) {
+                pR.setShape(circle);
+                switch (color) {
+                    case 0:
+                        pR.setColor(Color.RED);
+                        break;
+                    case 1:
+                        pR.setColor(Color.GREEN);
+                        break;
+                    case 2:
+                        pR.setColor(Color.BLUE);
+                        break;
+                    case 3:
+                        pR.setColor(Color.BLACK);
+                        break;
+                }
+            }
+        }
+    }
+}
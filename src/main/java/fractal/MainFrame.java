@@ -1,17 +1,15 @@
 package fractal;
 
+import base.NewtonSolver;
 import base.PlotUtils;
+import base.ResultCache;
 import de.erichseifert.gral.data.DataTable;
-import de.erichseifert.gral.navigation.NavigationEvent;
-import de.erichseifert.gral.navigation.NavigationListener;
 import de.erichseifert.gral.plots.XYPlot;
 import de.erichseifert.gral.plots.axes.Axis;
 import de.erichseifert.gral.plots.lines.DefaultLineRenderer2D;
 import de.erichseifert.gral.plots.lines.LineRenderer;
 import de.erichseifert.gral.plots.points.PointRenderer;
 import de.erichseifert.gral.ui.InteractivePanel;
-import de.erichseifert.gral.util.PointND;
-import org.apache.commons.math3.util.Pair;
 import org.jblas.ComplexDouble;
 
 import javax.swing.*;
@@ -19,9 +17,6 @@ import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.geom.Ellipse2D;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ExecutionException;
 
 /**
  * Main frame for fractal task
@@ -29,15 +24,13 @@ import java.util.concurrent.ExecutionException;
  * @author Danil Kolikov
  */
 public class MainFrame extends JFrame {
-    private static final Shape circle = new Ellipse2D.Double(-2.0, -2.0, 4.0, 4.0);
-
-    private List<DataTable> pointsData = new ArrayList<>(4);
+    private FractalView view = new FractalView(ResultCache.fromProperty());
     private DataTable pathData = new DataTable(Double.class, Double.class);
-    private XYPlot plot = new XYPlot();
-    private InteractivePanel interactivePanel;
+    private XYPlot plot = view.getPlot();
     private LineRenderer lineRenderer = new DefaultLineRenderer2D();
 
-    private Solver solver = new Solver();
+    private Solver solver = view.getSolver();
+    private PathTracer pathTracer = new PathTracer(solver, this::drawPath);
 
     private void drawCircle() {
         DataTable circleData = new DataTable(Double.class, Double.class);
@@ -54,130 +47,56 @@ public class MainFrame extends JFrame {
         }
     }
 
-    private void drawPoints(ComplexDouble leftBottomPoint, ComplexDouble rightTopPoint) {
-        SwingWorker<List<Solver.ColoredPoint>, Void> worker = new SwingWorker<List<Solver.ColoredPoint>, Void>() {
-            @Override
-            protected List<Solver.ColoredPoint> doInBackground() throws Exception {
-                return solver.solve(leftBottomPoint, rightTopPoint);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    List<Solver.ColoredPoint> points = get();
-                    List<Pair<Double, Double>>[] shown = new List[4];
-                    for (int i = 0; i < 4; i++) {
-                        shown[i] = new ArrayList<>();
-                    }
-                    for (Solver.ColoredPoint coloredPoint : points) {
-                        int color = coloredPoint.getColor();
-                        shown[color].add(new Pair<>(coloredPoint.getX(), coloredPoint.getY()));
-                    }
-                    for (int i = 0; i < 4; i++) {
-                        PlotUtils.replaceData(shown[i], pointsData.get(i), plot);
-                    }
-                    colorPoints();
-                    if (interactivePanel != null) {
-                        interactivePanel.repaint();
-                    }
-                    System.gc();
-                } catch (InterruptedException | ExecutionException e) {
-                    e.printStackTrace();
-                }
-            }
-        };
-        worker.execute();
-    }
-
-    private void colorPoints() {
-        for (int color = 0; color < 4; color++) {
-            for (PointRenderer pR : plot.getPointRenderers(pointsData.get(color))) {
-                pR.setShape(circle);
-                switch (color) {
-                    case 0:
-                        pR.setColor(Color.RED);
-                        break;
-                    case 1:
-                        pR.setColor(Color.GREEN);
-                        break;
-                    case 2:
-                        pR.setColor(Color.BLUE);
-                        break;
-                    case 3:
-                        //TODO: Black is never printed! May be we should increase number of iterations?
-                        pR.setColor(Color.BLACK);
-                        break;
-                }
-            }
-        }
+    private void drawPath(double[] xs, double[] ys, int length) {
+        PlotUtils.replaceData(xs, ys, length, pathData, plot);
+        getContentPane().repaint();
     }
 
-    private void drawPath(ComplexDouble startPoint) {
-        plot.remove(pathData);
-        pathData.clear();
-        for (ComplexDouble point : solver.solvePath(startPoint)) {
-            pathData.add(point.real(), point.imag());
-        }
-        plot.add(pathData);
-        plot.setLineRenderers(pathData, lineRenderer);
+    private void tracePath(MouseEvent e) {
+        Axis axisX = plot.getAxis(XYPlot.AXIS_X);
+        Axis axisY = plot.getAxis(XYPlot.AXIS_Y);
+        double axisXLen = axisX.getMax().doubleValue() - axisX.getMin().doubleValue();
+        double axisYLen = axisY.getMax().doubleValue() - axisY.getMin().doubleValue();
+        double X = axisX.getMin().doubleValue() + axisXLen * ((double) e.getX() / e.getComponent().getWidth());
+        double Y = axisY.getMax().doubleValue() - axisYLen * ((double) e.getY() / e.getComponent().getHeight());
+        ComplexDouble leftBottomPoint = new ComplexDouble(axisX.getMin().doubleValue(), axisY.getMin().doubleValue());
+        ComplexDouble rightTopPoint = new ComplexDouble(axisX.getMax().doubleValue(), axisY.getMax().doubleValue());
+        pathTracer.trace(X, Y, view.getConfig(leftBottomPoint, rightTopPoint));
     }
 
     private MainFrame() throws HeadlessException {
         setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
         setMinimumSize(new Dimension(700, 700));
-        for (int i = 0; i < 4; i++) {
-            pointsData.add(new DataTable(Double.class, Double.class));
-            plot.add(pointsData.get(i));
-        }
+        plot.add(pathData);
+        plot.setLineRenderers(pathData, lineRenderer);
 
-        plot.getNavigator().setZoomMax(Double.POSITIVE_INFINITY);
-        plot.getNavigator().setZoomMin(Double.NEGATIVE_INFINITY);
-        plot.getAxis(XYPlot.AXIS_X).setAutoscaled(false);
-        plot.getAxis(XYPlot.AXIS_Y).setAutoscaled(false);
-        plot.getNavigator().addNavigationListener(new NavigationListener() {
+        InteractivePanel interactivePanel = view.getInteractivePanel();
+        MouseAdapter mouseAdapter = new MouseAdapter() {
             @Override
-            public void centerChanged(NavigationEvent<PointND<? extends Number>> navigationEvent) {
-                System.out.println("Center changed");
-                Axis axisX = plot.getAxis(XYPlot.AXIS_X);
-                Axis axisY = plot.getAxis(XYPlot.AXIS_Y);
-                double rangeX = axisX.getMax().doubleValue() - axisX.getMin().doubleValue();
-                double rangeY = axisY.getMax().doubleValue() - axisY.getMin().doubleValue();
-                ComplexDouble centerPoint = new ComplexDouble(navigationEvent.getValueNew().getPoint2D().getX(), navigationEvent.getValueNew().getPoint2D().getY());
-                ComplexDouble leftBottomPoint = new ComplexDouble(centerPoint.real() - rangeX / 2, centerPoint.imag() - rangeY / 2);
-                ComplexDouble rightTopPoint = new ComplexDouble(centerPoint.real() + rangeX / 2, centerPoint.imag() + rangeY / 2);
-                drawPoints(leftBottomPoint, rightTopPoint);
+            public void mouseClicked(MouseEvent e) {
+                super.mouseClicked(e);
+                tracePath(e);
             }
 
             @Override
-            public void zoomChanged(NavigationEvent<Double> navigationEvent) {
-                Axis axisX = plot.getAxis(XYPlot.AXIS_X);
-                Axis axisY = plot.getAxis(XYPlot.AXIS_Y);
-                double multiplier = navigationEvent.getValueOld() / navigationEvent.getValueNew();
-                double partX = (axisX.getMax().doubleValue() - axisX.getMin().doubleValue()) / 2;
-                double partY = (axisY.getMax().doubleValue() - axisY.getMin().doubleValue()) / 2;
-                ComplexDouble leftBottomPoint = new ComplexDouble(axisX.getMin().doubleValue() + partX - partX * multiplier, axisY.getMin().doubleValue() + partY - partY * multiplier);
-                ComplexDouble rightTopPoint = new ComplexDouble(axisX.getMin().doubleValue() + partX + partX * multiplier, axisY.getMin().doubleValue() + partY + partY * multiplier);
-                drawPoints(leftBottomPoint, rightTopPoint);
-                System.out.println("Changed zoom: " + navigationEvent.getValueNew());
+            public void mouseMoved(MouseEvent e) {
+                super.mouseMoved(e);
+                // Trace paths continuously while Shift is pressed
+                if (e.isShiftDown()) {
+                    tracePath(e);
+                }
             }
-        });
+        };
+        interactivePanel.addMouseListener(mouseAdapter);
+        interactivePanel.addMouseMotionListener(mouseAdapter);
 
-        interactivePanel = new InteractivePanel(plot);
-        interactivePanel.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                super.mouseClicked(e);
-                Axis axisX = plot.getAxis(XYPlot.AXIS_X);
-                Axis axisY = plot.getAxis(XYPlot.AXIS_Y);
-                double axisXLen = axisX.getMax().doubleValue() - axisX.getMin().doubleValue();
-                double axisYLen = axisY.getMax().doubleValue() - axisY.getMin().doubleValue();
-                double X = axisX.getMin().doubleValue() + axisXLen * ((double) e.getX() / getContentPane().getWidth());
-                double Y = axisY.getMax().doubleValue() - axisYLen * ((double) e.getY() / getContentPane().getHeight());
-                drawPath(new ComplexDouble(X, Y));
-                getContentPane().repaint();
-            }
+        JComboBox<NewtonSolver.Method> methods = new JComboBox<>(NewtonSolver.Method.values());
+        methods.addActionListener(e -> {
+            view.setMethod((NewtonSolver.Method) methods.getSelectedItem());
+            view.redraw();
         });
 
+        getContentPane().add(methods, BorderLayout.NORTH);
         getContentPane().add(interactivePanel);
     }
 
@@ -186,7 +105,7 @@ public class MainFrame extends JFrame {
         mainFrame.setTitle("Fractals");
 
         double squareSide = 5.0f;
-        mainFrame.drawPoints(new ComplexDouble(-squareSide, -squareSide), new ComplexDouble(squareSide, squareSide));
+        mainFrame.view.drawPoints(new ComplexDouble(-squareSide, -squareSide), new ComplexDouble(squareSide, squareSide));
         mainFrame.drawCircle();
 
         mainFrame.setVisible(true);
@@ -0,0 +1,136 @@
+package fractal;
+
+import org.apache.commons.math3.util.Pair;
+import org.jblas.ComplexDouble;
+
+import javax.annotation.Nonnull;
+import javax.swing.*;
+import java.awt.*;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Traces paths of Newton method in background thread. Only the last requested path is traced,
+ * all requests which came during tracing are dropped. Paths are shown not faster than display refresh rate.
+ *
+ * @author Danil Kolikov
+ */
+public class PathTracer {
+    private static final int DEFAULT_REFRESH_RATE = 60;
+
+    /**
+     * Receives traced path on the event dispatch thread
+     */
+    @FunctionalInterface
+    public interface PathListener {
+        /**
+         * Buffers are reused after this method returns, so points should be copied
+         *
+         * @param xs     X coordinates of points
+         * @param ys     Y coordinates of points
+         * @param length Number of points in path
+         */
+        void pathTraced(@Nonnull double[] xs, @Nonnull double[] ys, int length);
+    }
+
+    private final Solver solver;
+    private final PathListener listener;
+    private final long frameNanos;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Path tracer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicReference<Pair<ComplexDouble, SolverConfig>> request = new AtomicReference<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // Used only by tracing thread
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private final ComplexDouble point = new ComplexDouble(0);
+    private final ComplexDouble next = new ComplexDouble(0);
+    private final ComplexDouble temp = new ComplexDouble(0);
+    private final ComplexDouble extra = new ComplexDouble(0);
+    private long lastFrame;
+
+    public PathTracer(@Nonnull Solver solver, @Nonnull PathListener listener) {
+        this.solver = solver;
+        this.listener = listener;
+        this.frameNanos = TimeUnit.SECONDS.toNanos(1) / getRefreshRate();
+        this.lastFrame = System.nanoTime() - frameNanos;
+    }
+
+    /**
+     * Request path starting from specified point. Previous request is dropped, if it wasn't traced yet.
+     *
+     * @param x      Real part of start point
+     * @param y      Imaginary part of start point
+     * @param config Configuration of request
+     */
+    public void trace(double x, double y, @Nonnull SolverConfig config) {
+        request.set(new Pair<>(new ComplexDouble(x, y), config));
+        if (scheduled.compareAndSet(false, true)) {
+            executor.submit(this::traceRequests);
+        }
+    }
+
+    private void traceRequests() {
+        while (true) {
+            waitForFrame();
+            Pair<ComplexDouble, SolverConfig> current = request.getAndSet(null);
+            if (current == null) {
+                scheduled.set(false);
+                // Request could come after check, but before reset of flag
+                if (request.get() != null && scheduled.compareAndSet(false, true)) {
+                    continue;
+                }
+                return;
+            }
+            SolverConfig config = current.getSecond();
+            int maxLength = config.getNewtonSolver().getMaxPathLength();
+            if (xs.length < maxLength) {
+                xs = new double[maxLength];
+                ys = new double[maxLength];
+            }
+            point.copy(current.getFirst());
+            int length = solver.solvePath(config, point, next, temp, extra, xs, ys);
+            try {
+                // Wait until points are copied, so buffers can be reused
+                SwingUtilities.invokeAndWait(() -> listener.pathTraced(xs, ys, length));
+            } catch (InterruptedException e) {
+                scheduled.set(false);
+                return;
+            } catch (InvocationTargetException e) {
+                e.printStackTrace();
+            }
+            lastFrame = System.nanoTime();
+        }
+    }
+
+    private void waitForFrame() {
+        long wait = lastFrame + frameNanos - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static int getRefreshRate() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return DEFAULT_REFRESH_RATE;
+        }
+        int refreshRate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice()
+                .getDisplayMode()
+                .getRefreshRate();
+        return refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_REFRESH_RATE : refreshRate;
+    }
+}
@@ -20,6 +20,14 @@ import java.util.concurrent.Future;
  */
 public class Solver {
 
+    /**
+     * Name of {@code f}, e.g. for keys of cache.
+     */
+    public static final String FUNCTION_NAME = "z^3 - 1";
+    /**
+     * Version of algorithm, is increased when results change, see {@link base.ResultCache#key}
+     */
+    public static final int VERSION = 2;
     /**
      * Function, which roots we want to find.
      */
@@ -28,6 +36,10 @@ public class Solver {
      * Derivative of {@code f}.
      */
     private static InPlaceFunction df_dz = (z, res) -> res.copy(z).muli(z).muli(3);
+    /**
+     * Second derivative of {@code f}.
+     */
+    private static InPlaceFunction d2f_dz2 = (z, res) -> res.copy(z).muli(6);
 
     private static final ComplexDouble[] roots = {
             new ComplexDouble(1, 0),
@@ -37,14 +49,31 @@ public class Solver {
     private static final int pointsPerAxis = 200;
     private static final int XS_PER_FUTURE = 20;
 
-    private ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
-    private NewtonSolver newtonSolver = new NewtonSolver(f, df_dz);
+    /**
+     * Configuration for function {@code f}. Accuracy is replaced for every request in {@link #getConfig}.
+     */
+    public static final SolverConfig DEFAULT_CONFIG = new SolverConfig(f, df_dz, d2f_dz2, roots, 1e-4, 1000,
+            pointsPerAxis, NewtonSolver.Method.NEWTON, NewtonSolver.DEFAULT_RELAXATION);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    private final SolverConfig config;
+
+    public Solver() {
+        this(DEFAULT_CONFIG);
+    }
 
-    private int findClosestRoot(ComplexDouble point, ComplexDouble tmp) {
-        double min = tmp.copy(roots[0]).subi(point).abs();
+    /**
+     * @param config Configuration, which is used for requests without own configuration
+     */
+    public Solver(@Nonnull SolverConfig config) {
+        this.config = config;
+    }
+
+    private static int findClosestRoot(SolverConfig config, ComplexDouble point, ComplexDouble tmp) {
+        double min = config.getRoot(0, tmp).subi(point).abs();
         int pos = 0;
-        for (int i = 1; i < 3; i++) {
-            double dist = tmp.copy(roots[i]).subi(point).abs();
+        for (int i = 1; i < config.getRootsCount(); i++) {
+            double dist = config.getRoot(i, tmp).subi(point).abs();
             if (dist < min) {
                 min = dist;
                 pos = i;
@@ -53,6 +82,21 @@ public class Solver {
         return pos;
     }
 
+    /**
+     * Returns configuration for rectangle {@code [a.real, b.real]x[a.imaginary, b.imaginary]}:
+     * accuracy is a half of distance between points.
+     *
+     * @param a the most left and down point of the rectangle
+     * @param b the most right and up point of the rectangle
+     * @return configuration of request
+     */
+    @Nonnull
+    public SolverConfig getConfig(ComplexDouble a, ComplexDouble b) {
+        double stepX = Math.abs(a.real() - b.real()) / config.getPointsPerAxis();
+        double stepY = Math.abs(a.imag() - b.imag()) / config.getPointsPerAxis();
+        return config.withAccuracy(Math.min(stepX, stepY) / 2);
+    }
+
     /**
      * This method finds root for function {@code f} for points in rectangle {@code [a.real, b.real]x[a.imaginary, b.imaginary]}.
      * Parameter {@code a} must be less or equal to parameter {@code b}.
@@ -62,44 +106,76 @@ public class Solver {
      * @return list of colored points
      */
     public List<ColoredPoint> solve(ComplexDouble a, ComplexDouble b) throws InvalidArgumentException {
+        return solve(a, b, getConfig(a, b));
+    }
+
+    /**
+     * Same as {@link #solve(ComplexDouble, ComplexDouble)}, but with specified configuration.
+     * Points which didn't converge have color equal to number of roots.
+     *
+     * @param a      the most left and down point of the rectangle
+     * @param b      the most right and up point of the rectangle
+     * @param config configuration of request
+     * @return list of colored points
+     */
+    public List<ColoredPoint> solve(ComplexDouble a, ComplexDouble b, @Nonnull SolverConfig config)
+            throws InvalidArgumentException {
         if (a.real() > b.real() || (a.real() == b.real() && a.imag() > b.imag())) {
             throw new InvalidArgumentException(new String[]{"Input points are not in lexicographical order"});
         }
+        return solveColumns(config, a.real(), b.real(), a.imag(), b.imag(), 0, config.getPointsPerAxis());
+    }
 
-        double stepX = Math.abs(a.real() - b.real()) / pointsPerAxis;
-        double stepY = Math.abs(a.imag() - b.imag()) / pointsPerAxis;
-        newtonSolver.setAccuracy(Math.min(stepX, stepY) / 2);
+    /**
+     * Finds roots for points of grid of rectangle {@code [minX, maxX)x[minY, maxY]}: {@code pointsPerAxis} columns
+     * {@code x = minX + (maxX - minX) * i / pointsPerAxis} and {@code pointsPerAxis + 1} rows, defined the same way.
+     * Coordinates don't depend on the range of columns, so parts of grid can be solved separately.
+     * Points are returned column by column.
+     *
+     * @param config     configuration of request
+     * @param minX       the most left column
+     * @param maxX       bound of columns, not included
+     * @param minY       the lowest row
+     * @param maxY       the highest row
+     * @param fromColumn index of the first column to solve
+     * @param toColumn   index of column after the last one to solve
+     * @return list of colored points
+     */
+    public List<ColoredPoint> solveColumns(@Nonnull SolverConfig config, double minX, double maxX,
+                                           double minY, double maxY, int fromColumn, int toColumn) {
+        NewtonSolver newtonSolver = config.getNewtonSolver();
+        int count = config.getPointsPerAxis();
         ArrayList<ColoredPoint> points = new ArrayList<>();
-        ArrayList<Future> futures = new ArrayList<>();
-        for (double x = a.real(); x < b.real(); ) {
-            double startX = x;
-            double endX = Math.min(startX + XS_PER_FUTURE * stepX, b.real());
-            x = endX;
+        ArrayList<Future<List<ColoredPoint>>> futures = new ArrayList<>();
+        for (int column = fromColumn; column < toColumn; column += XS_PER_FUTURE) {
+            int startColumn = column;
+            int endColumn = Math.min(startColumn + XS_PER_FUTURE, toColumn);
             futures.add(executor.submit(() -> {
-                ArrayList<ColoredPoint> result = new ArrayList<>();
+                List<ColoredPoint> result = new ArrayList<>();
                 ComplexDouble point = new ComplexDouble(0);
                 ComplexDouble next = new ComplexDouble(0);
                 ComplexDouble tmp = new ComplexDouble(0);
-                for (double finalX = startX; finalX < endX; finalX += stepX) {
-                    for (double y = a.imag(); y <= b.imag(); y += stepY) {
-                        point.set(finalX, y);
-                        ComplexDouble temp = newtonSolver.apply(point, next, tmp);
+                ComplexDouble extra = new ComplexDouble(0);
+                for (int i = startColumn; i < endColumn; i++) {
+                    double x = coordinate(minX, maxX, i, count);
+                    for (int j = 0; j <= count; j++) {
+                        double y = coordinate(minY, maxY, j, count);
+                        point.set(x, y);
+                        ComplexDouble temp = newtonSolver.apply(point, next, tmp, extra);
                         if (temp != null) {
-                            result.add(new ColoredPoint(finalX, y, findClosestRoot(temp, tmp)));
+                            result.add(new ColoredPoint(x, y, findClosestRoot(config, temp, tmp)));
                         } else {
-                            result.add(new ColoredPoint(finalX, y, 3));
+                            result.add(new ColoredPoint(x, y, config.getRootsCount()));
                         }
                     }
                 }
-                synchronized (points) {
-                    points.addAll(result);
-                }
+                return result;
             }));
         }
 
-        for (Future future : futures) {
+        for (Future<List<ColoredPoint>> future : futures) {
             try {
-                future.get();
+                points.addAll(future.get());
             } catch (InterruptedException | ExecutionException e) {
                 e.printStackTrace();
             }
@@ -107,22 +183,45 @@ public class Solver {
         return points;
     }
 
+    private static double coordinate(double min, double max, int index, int count) {
+        return min + (max - min) * index / count;
+    }
+
     /**
      * Returns path, which is created in {@link NewtonSolver::getPath}.
      *
-     * @param p start point
+     * @param config configuration of request, e.g. with accuracy of the shown view
+     * @param p      start point
      * @return list of points in the path
      */
     @Nonnull
-    public List<ComplexDouble> solvePath(ComplexDouble p) {
-        return newtonSolver.getPath(p);
+    public List<ComplexDouble> solvePath(@Nonnull SolverConfig config, ComplexDouble p) {
+        return config.getNewtonSolver().getPath(p);
+    }
+
+    /**
+     * Writes path, which is created in {@link NewtonSolver::getPath}, to buffers.
+     * Buffers should have length at least {@link NewtonSolver#getMaxPathLength()}.
+     *
+     * @param config configuration of request
+     * @param p      start point, will be changed
+     * @param next   Some temporary point
+     * @param temp   Some temporary point
+     * @param extra  Some temporary point
+     * @param xs     buffer for real parts of points
+     * @param ys     buffer for imaginary parts of points
+     * @return number of points in the path
+     */
+    public int solvePath(@Nonnull SolverConfig config, ComplexDouble p, ComplexDouble next, ComplexDouble temp,
+                         ComplexDouble extra, double[] xs, double[] ys) {
+        return config.getNewtonSolver().getPath(p, next, temp, extra, xs, ys);
     }
 
-    class ColoredPoint {
+    public static class ColoredPoint {
         private final double x, y;
         private final int color;
 
-        ColoredPoint(double x, double y, int color) {
+        public ColoredPoint(double x, double y, int color) {
             this.x = x;
             this.y = y;
             this.color = color;
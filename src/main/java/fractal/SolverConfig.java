@@ -0,0 +1,162 @@
+package fractal;
+
+import base.InPlaceFunction;
+import base.NewtonSolver;
+import org.jblas.ComplexDouble;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Immutable configuration of one request to {@link Solver}. Every request gets own configuration,
+ * so several requests can be solved simultaneously by one solver.
+ *
+ * @author Danil Kolikov
+ */
+public final class SolverConfig {
+    private final InPlaceFunction f;
+    private final InPlaceFunction df_dz;
+    @Nullable
+    private final InPlaceFunction d2f_dz2;
+    private final ComplexDouble[] roots;
+    private final double accuracy;
+    private final int maxIterations;
+    private final int pointsPerAxis;
+    private final NewtonSolver.Method method;
+    private final double relaxation;
+    private final NewtonSolver newtonSolver;
+
+    /**
+     * @param f             Function, which roots we want to find
+     * @param df_dz         Derivative of {@code f}
+     * @param roots         Roots of {@code f}, points are colored by index of the closest one
+     * @param accuracy      Accuracy of Newton method
+     * @param maxIterations Maximal number of iterations of Newton method
+     * @param pointsPerAxis Number of points to solve along each axis
+     */
+    public SolverConfig(@Nonnull InPlaceFunction f, @Nonnull InPlaceFunction df_dz, @Nonnull ComplexDouble[] roots,
+                        double accuracy, int maxIterations, int pointsPerAxis) {
+        this(f, df_dz, null, roots, accuracy, maxIterations, pointsPerAxis,
+                NewtonSolver.Method.NEWTON, NewtonSolver.DEFAULT_RELAXATION);
+    }
+
+    /**
+     * @param f             Function, which roots we want to find
+     * @param df_dz         Derivative of {@code f}
+     * @param d2f_dz2       Second derivative of {@code f}, needed by Halley and Householder methods
+     * @param roots         Roots of {@code f}, points are colored by index of the closest one
+     * @param accuracy      Accuracy of Newton method
+     * @param maxIterations Maximal number of iterations of Newton method
+     * @param pointsPerAxis Number of points to solve along each axis
+     * @param method        Iteration scheme of Newton method
+     * @param relaxation    Multiplier of step of damped Newton method
+     */
+    public SolverConfig(@Nonnull InPlaceFunction f, @Nonnull InPlaceFunction df_dz, @Nullable InPlaceFunction d2f_dz2,
+                        @Nonnull ComplexDouble[] roots, double accuracy, int maxIterations, int pointsPerAxis,
+                        @Nonnull NewtonSolver.Method method, double relaxation) {
+        this.f = f;
+        this.df_dz = df_dz;
+        this.d2f_dz2 = d2f_dz2;
+        // Points are mutable, so they are copied too
+        this.roots = new ComplexDouble[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            this.roots[i] = roots[i].dup();
+        }
+        this.accuracy = accuracy;
+        this.maxIterations = maxIterations;
+        this.pointsPerAxis = pointsPerAxis;
+        this.method = method;
+        this.relaxation = relaxation;
+        this.newtonSolver = new NewtonSolver(f, df_dz, d2f_dz2, accuracy, maxIterations, method, relaxation);
+    }
+
+    /**
+     * @return Copy of this configuration with other accuracy
+     */
+    @Nonnull
+    public SolverConfig withAccuracy(double accuracy) {
+        return withLimits(accuracy, maxIterations);
+    }
+
+    /**
+     * @return Copy of this configuration with other accuracy and maximal number of iterations
+     */
+    @Nonnull
+    public SolverConfig withLimits(double accuracy, int maxIterations) {
+        return new SolverConfig(f, df_dz, d2f_dz2, roots, accuracy, maxIterations, pointsPerAxis, method, relaxation);
+    }
+
+    /**
+     * @return Copy of this configuration with other iteration scheme
+     * @throws IllegalArgumentException if method needs second derivative, which is not specified
+     */
+    @Nonnull
+    public SolverConfig withMethod(@Nonnull NewtonSolver.Method method, double relaxation) {
+        return new SolverConfig(f, df_dz, d2f_dz2, roots, accuracy, maxIterations, pointsPerAxis, method, relaxation);
+    }
+
+    @Nonnull
+    public InPlaceFunction getF() {
+        return f;
+    }
+
+    @Nonnull
+    public InPlaceFunction getDf_dz() {
+        return df_dz;
+    }
+
+    @Nullable
+    public InPlaceFunction getD2f_dz2() {
+        return d2f_dz2;
+    }
+
+    public int getRootsCount() {
+        return roots.length;
+    }
+
+    /**
+     * @return Copy of root, so configuration can't be changed by caller
+     */
+    @Nonnull
+    public ComplexDouble getRoot(int index) {
+        return roots[index].dup();
+    }
+
+    /**
+     * Same as {@link #getRoot(int)}, but without allocations
+     *
+     * @param index  Index of root
+     * @param result Point, to which root is copied
+     * @return {@code result}
+     */
+    @Nonnull
+    public ComplexDouble getRoot(int index, @Nonnull ComplexDouble result) {
+        return result.copy(roots[index]);
+    }
+
+    public double getAccuracy() {
+        return accuracy;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public int getPointsPerAxis() {
+        return pointsPerAxis;
+    }
+
+    @Nonnull
+    public NewtonSolver.Method getMethod() {
+        return method;
+    }
+
+    public double getRelaxation() {
+        return relaxation;
+    }
+
+    @Nonnull
+    public NewtonSolver getNewtonSolver() {
+        return newtonSolver;
+    }
+}
@@ -0,0 +1,121 @@
+package base;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Stored values, with which results of tests are compared. Run tests with {@code -Dcms.updateBaselines=true}
+ * to store current values instead of checking them. Latency and allocation depend on the machine, so they are
+ * checked only with {@code -Dcms.latencyTests=true}, against baselines recorded on the same machine.
+ */
+public class Baselines {
+    private static final String UPDATE_PROPERTY = "cms.updateBaselines";
+    private static final String LATENCY_PROPERTY = "cms.latencyTests";
+    /**
+     * Directory of project, set by build, so baselines don't depend on working directory
+     */
+    private static final String PROJECT_DIR_PROPERTY = "cms.projectDir";
+    private static final String RESOURCES = "baselines";
+    private static final File DIRECTORY = new File(System.getProperty(PROJECT_DIR_PROPERTY, "."),
+            "src/test/resources/" + RESOURCES);
+
+    private final File file;
+    private final Properties properties = new Properties();
+
+    /**
+     * Baselines are read from sources of project, or from classpath, if project directory is unknown
+     *
+     * @param name Name of file with baselines
+     */
+    public Baselines(@Nonnull String name) throws IOException {
+        file = new File(DIRECTORY, name + ".properties");
+        if (file.exists()) {
+            try (Reader reader = new FileReader(file)) {
+                properties.load(reader);
+            }
+            return;
+        }
+        InputStream resource = Baselines.class.getResourceAsStream("/" + RESOURCES + "/" + file.getName());
+        if (resource != null) {
+            try (InputStream in = resource) {
+                properties.load(in);
+            }
+        }
+    }
+
+    private static boolean isUpdating() {
+        return Boolean.getBoolean(UPDATE_PROPERTY);
+    }
+
+    /**
+     * @return Whether latency and allocation should be checked or recorded
+     */
+    public static boolean isLatencyChecked() {
+        return Boolean.getBoolean(LATENCY_PROPERTY) || isUpdating();
+    }
+
+    /**
+     * Check that value didn't grow more than in {@code factor} times plus {@code slack}
+     */
+    public synchronized void checkNotAbove(@Nonnull String key, double value, double factor, double slack) {
+        System.out.println(key + " = " + value);
+        if (isUpdating()) {
+            properties.setProperty(key, String.valueOf(value));
+            return;
+        }
+        String baseline = properties.getProperty(key);
+        assertNotNull("No baseline for " + key, baseline);
+        double limit = Double.parseDouble(baseline) * factor + slack;
+        assertTrue(key + " regressed: " + value + " > " + limit, value <= limit);
+    }
+
+    /**
+     * Check that value is the same as stored one
+     */
+    public synchronized void checkEquals(@Nonnull String key, @Nonnull String value) {
+        if (isUpdating()) {
+            properties.setProperty(key, value);
+            return;
+        }
+        assertEquals("Golden output of " + key, properties.getProperty(key), value);
+    }
+
+    /**
+     * Write values to file, if baselines are updating
+     */
+    public synchronized void save() throws IOException {
+        if (!isUpdating()) {
+            return;
+        }
+        DIRECTORY.mkdirs();
+        try (Writer writer = new FileWriter(file)) {
+            properties.store(writer, null);
+        }
+    }
+
+    /**
+     * @return Number of bytes, allocated by all live threads
+     */
+    public static long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long total = 0;
+        for (long allocated : bean.getThreadAllocatedBytes(bean.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,129 @@
+package base;
+
+import javax.annotation.Nonnull;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Replays navigation on a view and measures time until its points are shown. Panel of view is painted
+ * into an image after every frame, as it would be painted in a window.
+ */
+public class NavigationScenario {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final long FRAME_TIMEOUT = 60;
+
+    private final JComponent panel;
+    private final LongSupplier currentRedraw;
+    private final BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+    private final BlockingQueue<long[]> frames = new LinkedBlockingQueue<>();
+
+    /**
+     * @param panel         Panel of view
+     * @param currentRedraw Number of the last requested redraw of view
+     */
+    public NavigationScenario(@Nonnull JComponent panel, @Nonnull LongSupplier currentRedraw) {
+        this.panel = panel;
+        this.currentRedraw = currentRedraw;
+        panel.setSize(WIDTH, HEIGHT);
+    }
+
+    /**
+     * Listener of frames of view, is called on the event dispatch thread
+     *
+     * @param redraw Number of shown redraw
+     */
+    public void frameShown(long redraw) {
+        Graphics2D graphics = image.createGraphics();
+        panel.paint(graphics);
+        graphics.dispose();
+        frames.add(new long[]{redraw, System.nanoTime()});
+    }
+
+    /**
+     * Wait until the last requested redraw is shown
+     */
+    public void awaitFrame() throws InterruptedException {
+        long last = currentRedraw.getAsLong();
+        while (true) {
+            long[] frame = frames.poll(FRAME_TIMEOUT, TimeUnit.SECONDS);
+            assertNotNull("Frame " + last + " is not shown", frame);
+            if (frame[0] >= last) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Run navigation steps on the event dispatch thread one after another, as if user makes them quickly,
+     * and wait until the last of them is shown
+     *
+     * @param steps Navigation steps
+     * @return Measured latency and allocation
+     */
+    @Nonnull
+    public Measurement run(@Nonnull Runnable... steps) throws Exception {
+        frames.clear();
+        long[] requested = new long[2];
+        long allocatedBefore = Baselines.allocatedBytes();
+        long start = System.nanoTime();
+        SwingUtilities.invokeAndWait(() -> {
+            requested[0] = currentRedraw.getAsLong();
+            for (Runnable step : steps) {
+                step.run();
+            }
+            requested[1] = currentRedraw.getAsLong();
+        });
+        long first = -1;
+        while (true) {
+            long[] frame = frames.poll(FRAME_TIMEOUT, TimeUnit.SECONDS);
+            assertNotNull("Frame " + requested[1] + " is not shown", frame);
+            if (frame[0] <= requested[0]) {
+                // Frame of previous scenario
+                continue;
+            }
+            if (first < 0) {
+                first = frame[1];
+            }
+            if (frame[0] >= requested[1]) {
+                return new Measurement(toMillis(first - start), toMillis(frame[1] - start),
+                        (Baselines.allocatedBytes() - allocatedBefore) / (1024.0 * 1024.0));
+            }
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    public static class Measurement {
+        private final double firstFrameMillis;
+        private final double finalFrameMillis;
+        private final double allocatedMegabytes;
+
+        Measurement(double firstFrameMillis, double finalFrameMillis, double allocatedMegabytes) {
+            this.firstFrameMillis = firstFrameMillis;
+            this.finalFrameMillis = finalFrameMillis;
+            this.allocatedMegabytes = allocatedMegabytes;
+        }
+
+        public double getFirstFrameMillis() {
+            return firstFrameMillis;
+        }
+
+        public double getFinalFrameMillis() {
+            return finalFrameMillis;
+        }
+
+        public double getAllocatedMegabytes() {
+            return allocatedMegabytes;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package base;
+
+import org.jblas.ComplexDouble;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for NewtonSolver
+ */
+public class NewtonSolverTest {
+    private static final InPlaceFunction f = (z, res) -> res.copy(z).muli(z).muli(z).subi(ComplexDouble.UNIT);
+    private static final InPlaceFunction df_dz = (z, res) -> res.copy(z).muli(z).muli(3);
+    private static final InPlaceFunction d2f_dz2 = (z, res) -> res.copy(z).muli(6);
+
+    private static NewtonSolver create(NewtonSolver.Method method) {
+        return new NewtonSolver(f, df_dz, d2f_dz2, 1e-10, 1000, method, NewtonSolver.DEFAULT_RELAXATION);
+    }
+
+    @org.junit.Test
+    public void testMethodsConverge() throws Exception {
+        for (NewtonSolver.Method method : NewtonSolver.Method.values()) {
+            ComplexDouble root = create(method).apply(new ComplexDouble(2, 0.5), new ComplexDouble(0),
+                    new ComplexDouble(0));
+            assertNotNull(method + " didn't converge", root);
+            assertEquals(method.toString(), 0, root.sub(ComplexDouble.UNIT).abs(), 1e-8);
+        }
+    }
+
+    @org.junit.Test
+    public void testCubicConvergence() throws Exception {
+        int newton = create(NewtonSolver.Method.NEWTON).getPath(new ComplexDouble(2, 0.5)).size();
+        int halley = create(NewtonSolver.Method.HALLEY).getPath(new ComplexDouble(2, 0.5)).size();
+        int householder = create(NewtonSolver.Method.HOUSEHOLDER).getPath(new ComplexDouble(2, 0.5)).size();
+        int damped = create(NewtonSolver.Method.DAMPED_NEWTON).getPath(new ComplexDouble(2, 0.5)).size();
+        int maxLength = create(NewtonSolver.Method.NEWTON).getMaxPathLength();
+        assertTrue("Newton: " + newton, newton < maxLength);
+        assertTrue("Halley: " + halley + ", Newton: " + newton, halley < newton);
+        assertTrue("Householder: " + householder + ", Newton: " + newton, householder < newton);
+        // Damped method converges linearly
+        assertTrue("Damped: " + damped + ", Newton: " + newton, newton < damped && damped < maxLength);
+    }
+
+    @org.junit.Test
+    public void testBufferedPath() throws Exception {
+        for (NewtonSolver.Method method : NewtonSolver.Method.values()) {
+            checkBufferedPath(create(method), new ComplexDouble(2, 0.5));
+            checkBufferedPath(create(method), new ComplexDouble(-0.3, 0.7));
+        }
+    }
+
+    @org.junit.Test
+    public void testBufferedPathLimit() throws Exception {
+        for (NewtonSolver.Method method : NewtonSolver.Method.values()) {
+            NewtonSolver solver = new NewtonSolver(f, df_dz, d2f_dz2, 1e-10, 5, method,
+                    NewtonSolver.DEFAULT_RELAXATION);
+            // Path is cut by limit of iterations before convergence
+            assertEquals(method.toString(), 6, checkBufferedPath(solver, new ComplexDouble(1e3, 1e3)));
+        }
+    }
+
+    /**
+     * Check that buffered path is the same as list one, when buffers have minimal allowed length
+     *
+     * @return Length of path
+     */
+    private static int checkBufferedPath(NewtonSolver solver, ComplexDouble start) {
+        List<ComplexDouble> path = solver.getPath(start);
+        double[] xs = new double[solver.getMaxPathLength()];
+        double[] ys = new double[solver.getMaxPathLength()];
+        int length = solver.getPath(start.dup(), new ComplexDouble(0), new ComplexDouble(0), new ComplexDouble(0),
+                xs, ys);
+        assertEquals(path.size(), length);
+        for (int i = 0; i < length; i++) {
+            assertEquals(path.get(i).real(), xs[i], 0);
+            assertEquals(path.get(i).imag(), ys[i], 0);
+        }
+        return length;
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testSecondDerivativeRequired() throws Exception {
+        new NewtonSolver(f, df_dz, null, 1e-10, 1000, NewtonSolver.Method.HALLEY, NewtonSolver.DEFAULT_RELAXATION);
+    }
+}
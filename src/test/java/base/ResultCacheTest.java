@@ -0,0 +1,112 @@
+package base;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for ResultCache
+ */
+public class ResultCacheTest {
+    private File directory;
+
+    @org.junit.Before
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("cache").toFile();
+    }
+
+    @org.junit.After
+    public void deleteDirectory() throws IOException {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.delete(directory.toPath());
+    }
+
+    @org.junit.Test
+    public void testStoreAndLoad() throws Exception {
+        ResultCache cache = new ResultCache(directory, 1024 * 1024);
+        String key = ResultCache.key("test", 0.1, 1e-10, 1000);
+        assertNull(cache.load(key, in -> in.readDouble()));
+        cache.store(key, out -> out.writeDouble(Math.PI));
+        assertEquals(Math.PI, cache.load(key, in -> in.readDouble()), 0);
+        assertNull(cache.load(ResultCache.key("test", 0.1, 1e-10, 1001), in -> in.readDouble()));
+    }
+
+    @org.junit.Test
+    public void testDamagedFile() throws Exception {
+        ResultCache cache = new ResultCache(directory, 1024 * 1024);
+        cache.store("key", out -> out.writeLong(42));
+        File[] files = directory.listFiles();
+        assertNotNull(files);
+        assertEquals(1, files.length);
+        try (RandomAccessFile file = new RandomAccessFile(files[0], "rw")) {
+            // Damage the last byte of payload
+            file.seek(file.length() - 9);
+            file.write(0xff);
+        }
+        assertNull(cache.load("key", in -> in.readLong()));
+        assertFalse(files[0].exists());
+    }
+
+    @org.junit.Test
+    public void testDamagedHeader() throws Exception {
+        ResultCache cache = new ResultCache(directory, 1024 * 1024);
+        for (int length : new int[]{-5, 1 << 30, 7, 9}) {
+            cache.store("key", out -> out.writeLong(42));
+            File[] files = directory.listFiles();
+            assertNotNull(files);
+            assertEquals(1, files.length);
+            try (RandomAccessFile file = new RandomAccessFile(files[0], "rw")) {
+                // Replace length of payload, which precedes payload of 8 bytes and checksum
+                file.seek(file.length() - 20);
+                file.writeInt(length);
+            }
+            assertNull(cache.load("key", in -> in.readLong()));
+            // Damaged file is deleted, so the key can be stored again
+            assertFalse(files[0].exists());
+        }
+        cache.store("key", out -> out.writeLong(42));
+        assertEquals(42L, (long) cache.load("key", in -> in.readLong()));
+    }
+
+    @org.junit.Test
+    public void testEviction() throws Exception {
+        ResultCache cache = new ResultCache(directory, 3000);
+        for (int i = 0; i < 10; i++) {
+            cache.store("key" + i, out -> out.write(new byte[1000]));
+        }
+        File[] files = directory.listFiles();
+        assertNotNull(files);
+        assertEquals(2, files.length);
+        assertNotNull(cache.load("key9", in -> in.readByte()));
+    }
+
+    @org.junit.Test
+    public void testWrittenFileIsNotEvicted() throws Exception {
+        ResultCache cache = new ResultCache(directory, 3000);
+        cache.store("old0", out -> out.write(new byte[1000]));
+        cache.store("old1", out -> out.write(new byte[1000]));
+        File[] files = directory.listFiles();
+        assertNotNull(files);
+        // Old files look newer than the next one, e.g. because of low resolution of modification time
+        for (File file : files) {
+            assertTrue(file.setLastModified(System.currentTimeMillis() + 60_000));
+        }
+        cache.store("new", out -> out.write(new byte[1000]));
+        assertNotNull(cache.load("new", in -> in.readByte()));
+        files = directory.listFiles();
+        assertNotNull(files);
+        assertEquals(2, files.length);
+    }
+}
@@ -0,0 +1,50 @@
+package chaos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for downsampling of ConvergeSeriesFrame
+ */
+public class ConvergeSeriesFrameTest {
+    @org.junit.Test
+    public void testShortSeries() throws Exception {
+        double[] series = {0.5, 0.9, 0.1, 0.7};
+        double[] xs = new double[4];
+        double[] ys = new double[4];
+        assertEquals(3, ConvergeSeriesFrame.envelope(series, 1, 4, 2, xs, ys));
+        assertEquals(1, xs[0], 0);
+        assertEquals(0.9, ys[0], 0);
+        assertEquals(0.7, ys[2], 0);
+    }
+
+    @org.junit.Test
+    public void testEnvelope() throws Exception {
+        double[] series = Solver.findConvergeSeriesArray(3.9, 1e-10, 1_000_000);
+        assertTrue(series.length > 1_000_000);
+        int columns = 500;
+        double[] xs = new double[2 * columns];
+        double[] ys = new double[2 * columns];
+        int length = ConvergeSeriesFrame.envelope(series, 0, series.length, columns, xs, ys);
+        assertTrue(length <= 2 * columns);
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < length; i++) {
+            assertEquals(series[(int) xs[i]], ys[i], 0);
+            if (i > 0) {
+                assertTrue(xs[i - 1] < xs[i]);
+            }
+            min = Math.min(min, ys[i]);
+            max = Math.max(max, ys[i]);
+        }
+        double seriesMin = Double.POSITIVE_INFINITY;
+        double seriesMax = Double.NEGATIVE_INFINITY;
+        for (double point : series) {
+            seriesMin = Math.min(seriesMin, point);
+            seriesMax = Math.max(seriesMax, point);
+        }
+        assertEquals(seriesMin, min, 0);
+        assertEquals(seriesMax, max, 0);
+    }
+}
@@ -0,0 +1,106 @@
+package chaos;
+
+import base.Baselines;
+import base.NavigationScenario;
+import de.erichseifert.gral.navigation.Navigator;
+import de.erichseifert.gral.plots.XYPlot;
+import de.erichseifert.gral.util.PointND;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Scripted navigation of bifurcation diagram, and golden outputs of solver. Every navigation must end with its last
+ * redraw shown; its latency is checked only with {@code -Dcms.latencyTests=true}
+ */
+public class DiagramViewTest {
+    static {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    private static final double LATENCY_FACTOR = 3;
+    private static final double LATENCY_SLACK = 200;
+    private static final double ALLOCATION_FACTOR = 1.5;
+    private static final double ALLOCATION_SLACK = 16;
+
+    private static DiagramView view;
+    private static NavigationScenario scenario;
+    private static Baselines latency;
+    private static Baselines golden;
+
+    @org.junit.BeforeClass
+    public static void setUp() throws Exception {
+        latency = new Baselines("chaos-latency");
+        golden = new Baselines("chaos-golden");
+        SwingUtilities.invokeAndWait(() -> {
+            view = new DiagramView();
+            scenario = new NavigationScenario(view.getInteractivePanel(), view::getCurrentRedraw);
+            view.setFrameListener(scenario::frameShown);
+            view.getPlot().getAxis(XYPlot.AXIS_X).setRange(-2, 4);
+            view.getPlot().getAxis(XYPlot.AXIS_Y).setRange(-0.5, 1.5);
+        });
+        scenario.awaitFrame();
+    }
+
+    @org.junit.AfterClass
+    public static void tearDown() throws Exception {
+        latency.save();
+        golden.save();
+    }
+
+    @org.junit.Before
+    public void resetView() throws Exception {
+        scenario.run(() -> getNavigator().reset());
+    }
+
+    private static Navigator getNavigator() {
+        return view.getPlot().getNavigator();
+    }
+
+    private static void check(String name, NavigationScenario.Measurement measurement) {
+        if (!Baselines.isLatencyChecked()) {
+            return;
+        }
+        latency.checkNotAbove(name + ".first.ms", measurement.getFirstFrameMillis(), LATENCY_FACTOR, LATENCY_SLACK);
+        latency.checkNotAbove(name + ".final.ms", measurement.getFinalFrameMillis(), LATENCY_FACTOR, LATENCY_SLACK);
+        latency.checkNotAbove(name + ".allocated.mb", measurement.getAllocatedMegabytes(),
+                ALLOCATION_FACTOR, ALLOCATION_SLACK);
+    }
+
+    @org.junit.Test
+    public void testPan() throws Exception {
+        check("pan", scenario.run(() -> {
+            PointND<? extends Number> center = getNavigator().getCenter();
+            double x = center.get(0).doubleValue();
+            double y = center.get(1).doubleValue();
+            getNavigator().setCenter(new PointND<>(x + 0.5, y));
+        }));
+    }
+
+    @org.junit.Test
+    public void testZoomBurst() throws Exception {
+        Runnable zoomIn = () -> getNavigator().zoomIn();
+        check("zoomBurst", scenario.run(zoomIn, zoomIn, zoomIn, zoomIn, zoomIn));
+    }
+
+    @org.junit.Test
+    public void testDeepZoom() throws Exception {
+        check("deepZoom", scenario.run(
+                () -> getNavigator().setCenter(new PointND<>(3.5699, 0.5)),
+                () -> getNavigator().setZoom(1e4)));
+    }
+
+    @org.junit.Test
+    public void testGoldenRoots() throws Exception {
+        for (int i = 0; i <= 60; i++) {
+            double r = -2 + 0.1 * i;
+            List<Double> roots = Solver.findRoots(r, DiagramView.EPS, DiagramView.MAX_ITERATIONS);
+            StringBuilder value = new StringBuilder();
+            for (double root : roots) {
+                value.append(String.format(Locale.ROOT, "%.6f ", root));
+            }
+            golden.checkEquals("r" + i, value.toString().trim());
+        }
+    }
+}
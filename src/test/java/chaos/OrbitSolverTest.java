@@ -0,0 +1,183 @@
+package chaos;
+
+import base.Baselines;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Test for OrbitSolver and standard maps
+ */
+public class OrbitSolverTest {
+    private static final double EPS = 1e-10;
+    private static final int MAX_ITERATIONS = 10_000;
+    /**
+     * Maximal ratio of time of kernel to time of the same loop with logistic map written by hand
+     */
+    private static final double KERNEL_COST_FACTOR = 1.25;
+    private static final int COST_ITERATIONS = 100_000;
+
+    @org.junit.Test
+    public void testStandardMaps() throws Exception {
+        // Parameters with stable fixed points
+        double[] parameters = {2.8, 0.7, 0.8, 0.5, 1.5};
+        StandardMap[] maps = {StandardMap.LOGISTIC, StandardMap.SINE, StandardMap.TENT, StandardMap.GAUSS,
+                StandardMap.CUBIC};
+        for (int i = 0; i < maps.length; i++) {
+            StandardMap map = maps[i];
+            double r = parameters[i];
+            Solver.Attractor attractor = OrbitSolver.of(map).findAttractor(r, EPS, MAX_ITERATIONS);
+            assertTrue(map.getName(), attractor.isCycle());
+            assertEquals(map.getName(), 1, attractor.getPeriod());
+            double root = attractor.getRoots().get(0);
+            assertEquals(map.getName(), root, map.apply(r, root), 1e-8);
+            assertEquals(map.getName(), Math.log(Math.abs(map.derivative(r, root))),
+                    attractor.getLyapunovExponent(), 1e-6);
+            assertTrue(map.getName(), attractor.getLyapunovExponent() < 0);
+        }
+        assertEquals(1 - 1 / 2.8, OrbitSolver.of(StandardMap.LOGISTIC).findAttractor(2.8, EPS, MAX_ITERATIONS)
+                .getRoots().get(0), 1e-8);
+        assertEquals(0, OrbitSolver.of(StandardMap.TENT).findAttractor(0.8, EPS, MAX_ITERATIONS)
+                .getRoots().get(0), 1e-8);
+    }
+
+    @org.junit.Test
+    public void testSpecializedKernels() throws Exception {
+        OrbitSolver logistic = OrbitSolver.of(StandardMap.LOGISTIC);
+        assertSame(logistic, OrbitSolver.of(StandardMap.LOGISTIC));
+        assertNotSame(logistic.getClass(), OrbitSolver.of(StandardMap.SINE).getClass());
+        for (StandardMap map : StandardMap.values()) {
+            assertTrue(map.getName(), OrbitKernels.isSpecialized(OrbitSolver.of(map)));
+        }
+        OrbitSolver shared = new OrbitKernel(StandardMap.LOGISTIC);
+        for (double r = 2.5; r < 4; r += 0.01) {
+            Solver.Attractor attractor = Solver.findAttractor(r, EPS, MAX_ITERATIONS);
+            assertEquals(shared.findAttractor(r, EPS, MAX_ITERATIONS).getRoots(), attractor.getRoots());
+            assertEquals(logistic.findAttractor(r, EPS, MAX_ITERATIONS).getLyapunovExponent(),
+                    attractor.getLyapunovExponent(), 0);
+        }
+    }
+
+    @org.junit.Test
+    public void testKernelResult() throws Exception {
+        OrbitSolver logistic = OrbitSolver.of(StandardMap.LOGISTIC);
+        for (double r : Solver.AsyncSolver.parameters(2.8, 4, 60)) {
+            assertEquals(String.valueOf(r), logisticExponent(r, EPS, MAX_ITERATIONS),
+                    logistic.findAttractor(r, EPS, MAX_ITERATIONS).getLyapunovExponent(), 0);
+            assertEquals(String.valueOf(r), logisticExponent(r, 0, MAX_ITERATIONS),
+                    logistic.findAttractor(r, 0, MAX_ITERATIONS).getLyapunovExponent(), 0);
+        }
+    }
+
+    @org.junit.Test
+    public void testKernelCost() throws Exception {
+        // Time depends on machine and its load, so it is checked only on request
+        assumeTrue(Baselines.isLatencyChecked());
+        // Zero accuracy makes every search iterate up to the limit
+        double[] parameters = Solver.AsyncSolver.parameters(2.8, 3.4, 50);
+        OrbitSolver logistic = OrbitSolver.of(StandardMap.LOGISTIC);
+        // Other maps are iterated too, as after switching maps in diagram
+        for (StandardMap map : StandardMap.values()) {
+            double[] mapParameters = Solver.AsyncSolver.parameters(map.getMinR(), map.getMaxR(), 50);
+            solve(OrbitSolver.of(map), mapParameters);
+            solve(new OrbitKernel(map), mapParameters);
+        }
+        long kernel = Long.MAX_VALUE;
+        long inline = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long start = System.nanoTime();
+            double kernelSum = solve(logistic, parameters);
+            long middle = System.nanoTime();
+            double inlineSum = 0;
+            for (double r : parameters) {
+                inlineSum += logisticExponent(r, 0, COST_ITERATIONS);
+            }
+            long end = System.nanoTime();
+            assertEquals(inlineSum, kernelSum, 0);
+            kernel = Math.min(kernel, middle - start);
+            inline = Math.min(inline, end - middle);
+        }
+        // Both are measured in the same JVM, so only the ratio is checked
+        assertTrue("Kernel: " + kernel + " ns, inline: " + inline + " ns", kernel < inline * KERNEL_COST_FACTOR);
+    }
+
+    private static double solve(OrbitSolver solver, double[] parameters) {
+        double sum = 0;
+        for (double r : parameters) {
+            sum += solver.findAttractor(r, 0, COST_ITERATIONS).getLyapunovExponent();
+        }
+        return sum;
+    }
+
+    /**
+     * Search of attractor of logistic map, written by hand as it was before maps became pluggable
+     *
+     * @return Lyapunov exponent
+     */
+    private static double logisticExponent(double r, double eps, int maxIterations) {
+        double current = 0.5;
+        double lyapunovSum = 0;
+        double product = 1;
+        int iterations = 0;
+        double transientSum = 0;
+        int transientIterations = 0;
+
+        int currentSkip = 1;
+        do {
+            double previous = current;
+
+            int length = 1;
+            for (; length < currentSkip; length++) {
+                current = r * current * (1 - current);
+                product *= Math.min(Math.max(Math.abs(r * (1 - 2 * current)), 1e-100), 1e100);
+                if (product > 1e100 || product < 1e-100) {
+                    lyapunovSum += Math.log(product);
+                    product = 1;
+                }
+                iterations++;
+                if (Math.abs(previous - current) < eps) {
+                    break;
+                }
+            }
+            lyapunovSum += Math.log(product);
+            product = 1;
+            if (Math.abs(previous - current) < eps) {
+                double[] cycle = new double[length];
+                double point = current;
+                for (int i = 0; i < length; i++) {
+                    cycle[i] = point;
+                    point = r * point * (1 - point);
+                }
+                boolean converged = Math.abs(point - cycle[0]) < eps;
+                for (int i = 1; i < length; i++) {
+                    converged &= Math.abs(cycle[i] - r * cycle[i - 1] * (1 - cycle[i - 1])) < eps;
+                }
+                if (converged) {
+                    double sum = 0;
+                    for (double x : cycle) {
+                        sum += Math.log(Math.min(Math.max(Math.abs(r * (1 - 2 * x)), 1e-100), 1e100));
+                    }
+                    return sum / length;
+                }
+            }
+            if (iterations < 1000) {
+                transientSum = lyapunovSum;
+                transientIterations = iterations;
+            } else if (iterations - transientIterations >= 1000
+                    && (lyapunovSum - transientSum) / (iterations - transientIterations) > 5e-2) {
+                break;
+            }
+            currentSkip *= 2;
+        } while (currentSkip <= maxIterations);
+        return (lyapunovSum - transientSum) / (iterations - transientIterations);
+    }
+
+    @org.junit.Test(expected = IllegalArgumentException.class)
+    public void testUnknownMap() throws Exception {
+        assertSame(StandardMap.SINE, StandardMap.forName(StandardMap.SINE.getName()));
+        StandardMap.forName("henon");
+    }
+}
@@ -0,0 +1,76 @@
+package chaos;
+
+import org.apache.commons.math3.util.Pair;
+
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for Prefetcher
+ */
+public class PrefetcherTest {
+    private static final double EPS = 1e-10;
+    private static final int MAX_ITERATIONS = 10_000;
+    private static final int POINTS_COUNT = 500;
+
+    private static Prefetcher solved(double left, double right) {
+        Prefetcher prefetcher = new Prefetcher(StandardMap.LOGISTIC, 0, EPS, MAX_ITERATIONS);
+        Solver.AsyncSolver solver = new Solver.AsyncSolver();
+        solver.setContinuation(true);
+        prefetcher.add(left, right, (right - left) / POINTS_COUNT,
+                solver.solve(left, right, POINTS_COUNT, EPS, MAX_ITERATIONS));
+        return prefetcher;
+    }
+
+    @org.junit.Test
+    public void testNeighbours() throws Exception {
+        Prefetcher prefetcher = solved(2, 3);
+        double step = 1.0 / POINTS_COUNT;
+        assertNull(prefetcher.lookup(2.5, 3.5, step));
+        prefetcher.prefetch(2, 3, step).get();
+
+        // Pan to the right
+        List<Pair<Double, List<Double>>> panned = prefetcher.lookup(2.5, 3.5, step);
+        assertNotNull(panned);
+        assertEquals(POINTS_COUNT, panned.size(), POINTS_COUNT / 50);
+        for (int i = 1; i < panned.size(); i++) {
+            assertEquals(step, panned.get(i).getKey() - panned.get(i - 1).getKey(), step / 10);
+        }
+        // Zoom out with the same number of points
+        List<Pair<Double, List<Double>>> zoomed = prefetcher.lookup(1.75, 3.25, 1.5 / POINTS_COUNT);
+        assertNotNull(zoomed);
+        assertEquals(POINTS_COUNT, zoomed.size(), POINTS_COUNT / 50);
+        // Zoom in needs more points
+        assertNull(prefetcher.lookup(2.25, 2.75, 0.5 / POINTS_COUNT));
+    }
+
+    @org.junit.Test
+    public void testCancel() throws Exception {
+        Prefetcher prefetcher = solved(2, 3);
+        double step = 1.0 / POINTS_COUNT;
+        Future<?> future = prefetcher.prefetch(2, 3, step);
+        prefetcher.cancel().get();
+        assertTrue(future.isDone());
+        assertNull(prefetcher.lookup(1, 2, step));
+        assertNull(prefetcher.lookup(3, 4, step));
+    }
+
+    @org.junit.Test
+    public void testInterruptRunning() throws Exception {
+        // Zero accuracy makes every parameter iterate up to the limit, so dense neighbours take seconds to solve
+        Prefetcher prefetcher = new Prefetcher(StandardMap.LOGISTIC, 0, 0, MAX_ITERATIONS);
+        double step = 1e-5;
+        Future<?> future = prefetcher.prefetch(3, 3.5, step);
+        Thread.sleep(100);
+        // Running solving stops at once, not after the whole range
+        prefetcher.cancel().get(1, TimeUnit.SECONDS);
+        assertTrue(future.isCancelled());
+        assertNull(prefetcher.lookup(2.5, 3, step));
+    }
+}
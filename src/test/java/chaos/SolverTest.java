@@ -0,0 +1,121 @@
+package chaos;
+
+import org.apache.commons.math3.util.Pair;
+
+import java.util.List;
+
+import static chaos.Solver.findAttractor;
+import static chaos.Solver.findRoots;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for Solver
+ */
+public class SolverTest {
+    @org.junit.Test
+    public void testFindRoots() throws Exception {
+        double eps = 0.01;
+        int maxIterations = 1_000;
+        for (double r = 0; r < 5; r += 0.01) {
+            List<Double> roots = findRoots(r, eps, maxIterations);
+            System.out.println(r + " " + roots.size() + " " + roots);
+            assertFalse(roots.isEmpty());
+        }
+    }
+
+    @org.junit.Test
+    public void testLyapunovExponent() throws Exception {
+        double eps = 1e-10;
+        int maxIterations = 10_000;
+        // Stable cycles of period 1, 2 and 4
+        assertTrue(findAttractor(2.5, eps, maxIterations).getLyapunovExponent() < 0);
+        assertTrue(findAttractor(3.2, eps, maxIterations).getLyapunovExponent() < 0);
+        assertTrue(findAttractor(3.5, eps, maxIterations).getLyapunovExponent() < 0);
+        // Chaotic orbits
+        assertTrue(findAttractor(3.9, eps, maxIterations).getLyapunovExponent() > 0);
+        assertTrue(findAttractor(4, eps, maxIterations).getLyapunovExponent() > 0);
+        // Superstable fixed points have f' = 0
+        assertTrue(Double.isFinite(findAttractor(2, eps, maxIterations).getLyapunovExponent()));
+        assertTrue(Double.isFinite(findAttractor(0, eps, maxIterations).getLyapunovExponent()));
+        // Transient of period 3 window looks chaotic
+        Solver.Attractor window = findAttractor(3.83, eps, maxIterations);
+        assertTrue(window.isCycle());
+        assertEquals(3, window.getPeriod());
+    }
+
+    @org.junit.Test
+    public void testChaoticOrbit() throws Exception {
+        Solver.Attractor attractor = findAttractor(3.9, 1e-10, 10_000);
+        assertFalse(attractor.isCycle());
+        List<Double> points = attractor.getRoots();
+        assertEquals(10, points.size());
+        // Points are consecutive points of the orbit
+        for (int i = 1; i < points.size(); i++) {
+            assertEquals(3.9 * points.get(i - 1) * (1 - points.get(i - 1)), points.get(i), 1e-12);
+        }
+    }
+
+    @org.junit.Test
+    public void testContinuation() throws Exception {
+        double eps = 1e-10;
+        int maxIterations = 10_000;
+        Solver.Attractor previous = null;
+        for (double r = 2.5; r < 4; r += 0.001) {
+            Solver.Attractor attractor = Solver.continueAttractor(previous, r, eps, maxIterations);
+            Solver.Attractor cold = findAttractor(r, eps, maxIterations);
+            // Near bifurcation points cold start may not converge, when continuation does
+            assertTrue(!cold.isCycle() || attractor.sameCycle(cold, 1e-6));
+            previous = attractor;
+        }
+    }
+
+    @org.junit.Test
+    public void testValidation() throws Exception {
+        Solver.AsyncSolver solver = new Solver.AsyncSolver();
+        solver.setContinuation(true);
+        solver.setValidation(true);
+        List<Pair<Double, Solver.Attractor>> points = solver.solveAttractors(2.5, 4, 1500, 1e-10, 10_000);
+        assertEquals(1500, points.size());
+        assertEquals(0, solver.getMismatches());
+    }
+
+    @org.junit.Test
+    public void testParameters() throws Exception {
+        double[] parameters = Solver.AsyncSolver.parameters(-2, 4, 2000);
+        assertEquals(2000, parameters.length);
+        for (int i = 0; i < parameters.length; i++) {
+            assertEquals(-2 + 6.0 * i / 2000, parameters[i], 0);
+        }
+    }
+
+    @org.junit.Test
+    public void testAdaptive() throws Exception {
+        double eps = 1e-10;
+        int maxIterations = 10_000;
+        Solver.AsyncSolver solver = new Solver.AsyncSolver();
+        List<Pair<Double, Solver.Attractor>> points = solver.solveAdaptive(3.2, 3.3, 100, 3, eps, maxIterations,
+                null);
+        assertNotNull(points);
+        // Period is 2 everywhere, nothing to refine
+        assertEquals(100, points.size());
+
+        // Period doubles at 1 + sqrt(6)
+        points = solver.solveAdaptive(3.4, 3.5, 100, 3, eps, maxIterations, null);
+        assertNotNull(points);
+        assertTrue(points.size() > 100);
+        double bifurcation = 1 + Math.sqrt(6);
+        double minDistance = Double.POSITIVE_INFINITY;
+        for (int i = 1; i < points.size(); i++) {
+            double r = points.get(i - 1).getKey();
+            double next = points.get(i).getKey();
+            assertTrue(r < next);
+            if (Math.abs(r - bifurcation) < 0.002) {
+                minDistance = Math.min(minDistance, next - r);
+            }
+        }
+        assertEquals(0.001 / 8, minDistance, 1e-9);
+    }
+}
@@ -0,0 +1,103 @@
+package distributed;
+
+import fractal.SolverConfig;
+import org.apache.commons.math3.util.Pair;
+import org.jblas.ComplexDouble;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for Coordinator with workers on localhost
+ */
+public class CoordinatorTest {
+    private static final double EPS = 1e-10;
+    private static final int MAX_ITERATIONS = 10_000;
+
+    @org.junit.Test
+    public void testChaos() throws Exception {
+        try (LocalWorkers workers = new LocalWorkers(2)) {
+            Coordinator coordinator = new Coordinator(workers.getAddresses());
+            List<Pair<Double, chaos.Solver.Attractor>> result =
+                    coordinator.solveChaos(-2, 4, 400, EPS, MAX_ITERATIONS, false);
+            double[] parameters = chaos.Solver.AsyncSolver.parameters(-2, 4, 400);
+            assertEquals(parameters.length, result.size());
+            for (int i = 0; i < parameters.length; i++) {
+                double r = result.get(i).getKey();
+                assertEquals(parameters[i], r, 0);
+                assertEquals(chaos.Solver.findRoots(r, EPS, MAX_ITERATIONS), result.get(i).getValue().getRoots());
+            }
+        }
+    }
+
+    @org.junit.Test
+    public void testFractal() throws Exception {
+        // Bounds, for which distance between points is not representable exactly
+        ComplexDouble a = new ComplexDouble(-0.7, -0.3);
+        ComplexDouble b = new ComplexDouble(0.4, 0.9);
+        fractal.Solver solver = new fractal.Solver();
+        SolverConfig config = solver.getConfig(a, b);
+        try (LocalWorkers workers = new LocalWorkers(2)) {
+            Coordinator coordinator = new Coordinator(workers.getAddresses());
+            List<fractal.Solver.ColoredPoint> expected = solver.solve(a, b, config);
+            List<fractal.Solver.ColoredPoint> result = coordinator.solveFractal(a, b, config);
+            assertEquals(expected.size(), result.size());
+            for (int i = 0; i < expected.size(); i++) {
+                fractal.Solver.ColoredPoint point = expected.get(i);
+                assertEquals(point.getX(), result.get(i).getX(), 0);
+                assertEquals(point.getY(), result.get(i).getY(), 0);
+                assertEquals(point.getColor(), result.get(i).getColor());
+            }
+        }
+    }
+
+    @org.junit.Test
+    public void testLostWorker() throws Exception {
+        try (LocalWorkers workers = new LocalWorkers(3)) {
+            Coordinator coordinator = new Coordinator(workers.getAddresses());
+            List<Pair<Double, chaos.Solver.Attractor>> expected =
+                    coordinator.solveChaos(2.5, 4, 300, EPS, MAX_ITERATIONS, true);
+            workers.kill(1);
+            List<Pair<Double, chaos.Solver.Attractor>> result =
+                    coordinator.solveChaos(2.5, 4, 300, EPS, MAX_ITERATIONS, true);
+            assertEquals(expected.size(), result.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getKey(), result.get(i).getKey());
+                assertEquals(expected.get(i).getValue().getRoots(), result.get(i).getValue().getRoots());
+            }
+        }
+    }
+
+    @org.junit.Test
+    public void testWorkerLostDuringTask() throws Exception {
+        try (LocalWorkers workers = new LocalWorkers(2)) {
+            Coordinator coordinator = new Coordinator(workers.getAddresses());
+            InetSocketAddress lost = workers.getAddresses().get(1);
+            AtomicBoolean killed = new AtomicBoolean();
+            // Worker is stopped after it received its first task and before it replied
+            coordinator.setTaskListener((worker, index) -> {
+                if (worker.equals(lost) && killed.compareAndSet(false, true)) {
+                    try {
+                        workers.kill(1);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            List<Pair<Double, chaos.Solver.Attractor>> result =
+                    coordinator.solveChaos(2.5, 4, 2000, EPS, MAX_ITERATIONS, false);
+            assertTrue(killed.get());
+            double[] parameters = chaos.Solver.AsyncSolver.parameters(2.5, 4, 2000);
+            assertEquals(parameters.length, result.size());
+            for (int i = 0; i < parameters.length; i++) {
+                assertEquals(parameters[i], result.get(i).getKey(), 0);
+                assertEquals(chaos.Solver.findRoots(result.get(i).getKey(), EPS, MAX_ITERATIONS),
+                        result.get(i).getValue().getRoots());
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package fractal;
+
+import base.Baselines;
+import base.NavigationScenario;
+import de.erichseifert.gral.navigation.Navigator;
+import de.erichseifert.gral.plots.XYPlot;
+import de.erichseifert.gral.util.PointND;
+import org.jblas.ComplexDouble;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Scripted navigation of fractal view, and golden outputs of solver. Every navigation must end with its last
+ * redraw shown; its latency is checked only with {@code -Dcms.latencyTests=true}
+ */
+public class FractalViewTest {
+    static {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    private static final double SQUARE_SIDE = 5;
+    private static final double LATENCY_FACTOR = 3;
+    private static final double LATENCY_SLACK = 200;
+    private static final double ALLOCATION_FACTOR = 1.5;
+    private static final double ALLOCATION_SLACK = 16;
+
+    private static FractalView view;
+    private static NavigationScenario scenario;
+    private static Baselines latency;
+    private static Baselines golden;
+
+    @org.junit.BeforeClass
+    public static void setUp() throws Exception {
+        latency = new Baselines("fractal-latency");
+        golden = new Baselines("fractal-golden");
+        SwingUtilities.invokeAndWait(() -> {
+            view = new FractalView();
+            scenario = new NavigationScenario(view.getInteractivePanel(), view::getCurrentRedraw);
+            view.setFrameListener(scenario::frameShown);
+            view.drawPoints(new ComplexDouble(-SQUARE_SIDE, -SQUARE_SIDE), new ComplexDouble(SQUARE_SIDE, SQUARE_SIDE));
+            view.getPlot().getAxis(XYPlot.AXIS_X).setRange(-SQUARE_SIDE, SQUARE_SIDE);
+            view.getPlot().getAxis(XYPlot.AXIS_Y).setRange(-SQUARE_SIDE, SQUARE_SIDE);
+        });
+        scenario.awaitFrame();
+    }
+
+    @org.junit.AfterClass
+    public static void tearDown() throws Exception {
+        latency.save();
+        golden.save();
+    }
+
+    @org.junit.Before
+    public void resetView() throws Exception {
+        scenario.run(() -> getNavigator().reset());
+    }
+
+    private static Navigator getNavigator() {
+        return view.getPlot().getNavigator();
+    }
+
+    private static void check(String name, NavigationScenario.Measurement measurement) {
+        if (!Baselines.isLatencyChecked()) {
+            return;
+        }
+        latency.checkNotAbove(name + ".first.ms", measurement.getFirstFrameMillis(), LATENCY_FACTOR, LATENCY_SLACK);
+        latency.checkNotAbove(name + ".final.ms", measurement.getFinalFrameMillis(), LATENCY_FACTOR, LATENCY_SLACK);
+        latency.checkNotAbove(name + ".allocated.mb", measurement.getAllocatedMegabytes(),
+                ALLOCATION_FACTOR, ALLOCATION_SLACK);
+    }
+
+    @org.junit.Test
+    public void testPan() throws Exception {
+        check("pan", scenario.run(() -> getNavigator().setCenter(new PointND<>(1.0, 0.5))));
+    }
+
+    @org.junit.Test
+    public void testZoomBurst() throws Exception {
+        Runnable zoomIn = () -> getNavigator().zoomIn();
+        check("zoomBurst", scenario.run(zoomIn, zoomIn, zoomIn, zoomIn, zoomIn));
+    }
+
+    @org.junit.Test
+    public void testDeepZoom() throws Exception {
+        check("deepZoom", scenario.run(
+                () -> getNavigator().setCenter(new PointND<>(-0.5, 0.0)),
+                () -> getNavigator().setZoom(1e6)));
+    }
+
+    @org.junit.Test
+    public void testGoldenColors() throws Exception {
+        Solver solver = new Solver();
+        golden.checkEquals("default", countColors(solver.solve(
+                new ComplexDouble(-SQUARE_SIDE, -SQUARE_SIDE), new ComplexDouble(SQUARE_SIDE, SQUARE_SIDE))));
+        // Basins of all roots meet at -2^(-1/3), which is mapped to 0. Rectangle is not symmetric,
+        // so swapped colors of complex roots change counts.
+        golden.checkEquals("zoomed", countColors(solver.solve(
+                new ComplexDouble(-0.85, -0.02), new ComplexDouble(-0.75, 0.08))));
+    }
+
+    private static String countColors(List<Solver.ColoredPoint> points) {
+        int[] count = new int[Solver.DEFAULT_CONFIG.getRootsCount() + 1];
+        for (Solver.ColoredPoint point : points) {
+            count[point.getColor()]++;
+        }
+        return Arrays.toString(count);
+    }
+}
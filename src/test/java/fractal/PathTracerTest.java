@@ -0,0 +1,82 @@
+package fractal;
+
+import org.jblas.ComplexDouble;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for PathTracer
+ */
+public class PathTracerTest {
+    static {
+        System.setProperty("java.awt.headless", "true");
+    }
+
+    private static final long TIMEOUT = 10;
+
+    private final BlockingQueue<double[]> paths = new LinkedBlockingQueue<>();
+    private final PathTracer tracer = new PathTracer(new Solver(), (xs, ys, length) -> {
+        double[] path = new double[2 * length];
+        System.arraycopy(xs, 0, path, 0, length);
+        System.arraycopy(ys, 0, path, length, length);
+        paths.add(path);
+    });
+
+    @org.junit.Test
+    public void testTrace() throws Exception {
+        tracer.trace(2, 0.5, Solver.DEFAULT_CONFIG);
+        checkPath(2, 0.5, paths.poll(TIMEOUT, TimeUnit.SECONDS));
+    }
+
+    @org.junit.Test
+    public void testSupersededRequestDropped() throws Exception {
+        // Paths are shown on the event dispatch thread, so tracer can't finish any path while it is busy
+        CountDownLatch release = new CountDownLatch(1);
+        SwingUtilities.invokeLater(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        tracer.trace(2, 0.5, Solver.DEFAULT_CONFIG);
+        Thread.sleep(100);
+        tracer.trace(-0.3, 0.7, Solver.DEFAULT_CONFIG);
+        tracer.trace(-1, -1, Solver.DEFAULT_CONFIG);
+        release.countDown();
+
+        double[] last = null;
+        int count = 0;
+        while (true) {
+            double[] path = paths.poll(1, TimeUnit.SECONDS);
+            if (path == null) {
+                break;
+            }
+            last = path;
+            count++;
+        }
+        // At most one path is traced before the last request, the middle one is superseded
+        assertTrue("Traced " + count + " paths", count <= 2);
+        checkPath(-1, -1, last);
+    }
+
+    private static void checkPath(double x, double y, double[] path) {
+        assertNotNull("Path is not traced", path);
+        List<ComplexDouble> expected = Solver.DEFAULT_CONFIG.getNewtonSolver().getPath(new ComplexDouble(x, y));
+        int length = path.length / 2;
+        assertEquals(expected.size(), length);
+        for (int i = 0; i < length; i++) {
+            assertEquals(expected.get(i).real(), path[i], 0);
+            assertEquals(expected.get(i).imag(), path[length + i], 0);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package fractal;
+
+import base.InPlaceFunction;
+import base.NewtonSolver;
+import org.jblas.ComplexDouble;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test for Solver
+ */
+public class SolverTest {
+    private static final ComplexDouble A = new ComplexDouble(-2, -2);
+    private static final ComplexDouble B = new ComplexDouble(2, 2);
+
+    /**
+     * Configuration, which differs from default one in function, roots, iteration scheme and size of grid
+     */
+    private static SolverConfig quarticConfig() {
+        InPlaceFunction f = (z, res) -> res.copy(z).muli(z).muli(z).muli(z).subi(ComplexDouble.UNIT);
+        InPlaceFunction df_dz = (z, res) -> res.copy(z).muli(z).muli(z).muli(4);
+        InPlaceFunction d2f_dz2 = (z, res) -> res.copy(z).muli(z).muli(12);
+        ComplexDouble[] roots = {
+                new ComplexDouble(1, 0), new ComplexDouble(0, 1), new ComplexDouble(-1, 0), new ComplexDouble(0, -1)};
+        return new SolverConfig(f, df_dz, d2f_dz2, roots, 1e-3, 100, 150, NewtonSolver.Method.HALLEY,
+                NewtonSolver.DEFAULT_RELAXATION);
+    }
+
+    @org.junit.Test
+    public void testConcurrentConfigs() throws Exception {
+        Solver solver = new Solver();
+        SolverConfig cubic = solver.getConfig(A, B);
+        SolverConfig quartic = quarticConfig();
+        List<Solver.ColoredPoint> expectedCubic = solver.solve(A, B, cubic);
+        List<Solver.ColoredPoint> expectedQuartic = solver.solve(A, B, quartic);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 5; i++) {
+                CountDownLatch start = new CountDownLatch(2);
+                Future<List<Solver.ColoredPoint>> cubicPoints = executor.submit(() -> {
+                    start.countDown();
+                    start.await();
+                    return solver.solve(A, B, cubic);
+                });
+                Future<List<Solver.ColoredPoint>> quarticPoints = executor.submit(() -> {
+                    start.countDown();
+                    start.await();
+                    return solver.solve(A, B, quartic);
+                });
+                checkEquals(expectedCubic, cubicPoints.get());
+                checkEquals(expectedQuartic, quarticPoints.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void checkEquals(List<Solver.ColoredPoint> expected, List<Solver.ColoredPoint> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Solver.ColoredPoint point = expected.get(i);
+            Solver.ColoredPoint other = actual.get(i);
+            assertEquals(point.getX(), other.getX(), 0);
+            assertEquals(point.getY(), other.getY(), 0);
+            assertEquals("Color of (" + point.getX() + ", " + point.getY() + ")", point.getColor(), other.getColor());
+        }
+    }
+}